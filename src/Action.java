@@ -2,6 +2,9 @@ import java.util.ArrayList;
 
 /**
  * This {@code Action} class keeps actions that users want to do.
+ * <br> An {@code Action} that created from a command line keeps only the field offsets of the line.
+ * The parameters are created when they are needed for the first time.
+ * @see LineTokenizer
  */
 public class Action {
     /**
@@ -9,15 +12,45 @@ public class Action {
      */
     String actionName;
     /**
-     * Parameters list of the action.
+     * Parameters list of the action. It is created lazily for the actions that created from a command line.
+     * @see Action#getValues()
      */
-    ArrayList<String> values;
+    private ArrayList<String> values;
 
     /**
      * Users command as a raw String.
      */
     String commandText;
 
+    /**
+     * End offsets of the fields in {@link Action#commandText}.
+     * It is null for the actions that created with their parameters.
+     * @see LineTokenizer#findFieldEnds(String)
+     */
+    private final int[] fieldEnds;
+
+    /**
+     * Number of the fields in {@link Action#commandText} including action name.
+     */
+    private final int fieldCount;
+
+    /**
+     * Shows the command text contains only spaces and tabs. It is null until it is checked.
+     * @see Action#isEmptyCommand()
+     */
+    private Boolean emptyCommand;
+
+    /**
+     * The {@code Command} of the action name. It is null if the action name is unknown.
+     * @see Action#getCommand()
+     */
+    private Command command;
+
+    /**
+     * Shows the {@link Action#command} is found.
+     */
+    private boolean commandFound = false;
+
     /**
      * Creates an {@code Action} with action name , action values and command text.
      * @param actionName: Action's name.
@@ -28,5 +61,98 @@ public class Action {
         this.actionName = actionName;
         this.values = values;
         this.commandText = commandText;
+        this.fieldEnds = null;
+        this.fieldCount = values.size() + 1;
+    }
+
+    /**
+     * Creates an {@code Action} from a command line with its field offsets.
+     * @param commandText: Raw command text.
+     * @param fieldEnds: End offsets of the fields in the command text.
+     * @see LineTokenizer#findFieldEnds(String)
+     */
+    public Action(String commandText, int[] fieldEnds){
+        this.commandText = commandText;
+        this.fieldEnds = fieldEnds;
+        this.fieldCount = Math.max(LineTokenizer.countFields(fieldEnds), 1);
+        this.actionName = getField(0);
+    }
+
+    /**
+     * Gets the parameters list of the action.
+     * @return An {@code ArrayList<String>} contains the parameters of {@code Action}.
+     */
+    public ArrayList<String> getValues(){
+        if (values == null){
+            values = new ArrayList<>(fieldCount - 1);
+            for (int i = 1; i < fieldCount; i++){
+                values.add(getField(i));
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Gets the number of the parameters without creating the parameters list.
+     * @return An {@code int} that represents the number of parameters.
+     */
+    public int getValueCount(){
+        return fieldCount - 1;
+    }
+
+    /**
+     * Checks the command text is empty or contains only spaces and tabs.
+     * @return If the command is empty, returns true.
+     * @see Validations#isEmptyCommand(String)
+     */
+    public boolean isEmptyCommand(){
+        if (emptyCommand == null){
+            boolean empty = true;
+            for (int i = 0; i < commandText.length() && empty; i++){
+                char c = commandText.charAt(i);
+                empty = c == ' ' || c == '\t';
+            }
+            emptyCommand = empty;
+        }
+        return emptyCommand;
+    }
+
+    /**
+     * Gets the {@code Command} of the action name. It is found only once.
+     * @return A {@code Command}, or null if the action name is unknown.
+     */
+    public Command getCommand(){
+        if (!commandFound){
+            command = Command.of(actionName);
+            commandFound = true;
+        }
+        return command;
+    }
+
+    /**
+     * Checks the action name is a {@code Command}.
+     * @return If the action name is a valid action, returns true.
+     */
+    public boolean isKnownAction(){
+        return !Validations.isNull(getCommand());
+    }
+
+    /**
+     * Makes the checks and creates the parameters list before the action is executed.
+     * So, they can be done on a parsing thread instead of the executing thread.
+     */
+    public void prevalidate(){
+        isEmptyCommand();
+        getCommand();
+        getValues();
+    }
+
+    /**
+     * Gets a field of the {@link Action#commandText}.
+     * @param index An {@code int} represents the index of the field.
+     * @return A {@code String} that is the field.
+     */
+    private String getField(int index){
+        return commandText.substring(LineTokenizer.fieldStart(fieldEnds, index), fieldEnds[index]);
     }
 }
@@ -0,0 +1,215 @@
+/**
+ * <p>
+ *   The {@code BinaryLogFormat} class contains the constants and common methods of the binary command log format.
+ * </p>
+ * <p>
+ *   A binary command log starts with {@link BinaryLogFormat#MAGIC} and {@link BinaryLogFormat#VERSION}.
+ *   Then each command line is a record:
+ *   <br> -An opcode byte that is the ordinal of the {@link Command} of the action,
+ *   or {@link BinaryLogFormat#RAW_LINE} for the lines that are kept as text.
+ *   <br> -Number of the parameters as a varint.
+ *   <br> -A tag byte and a value for each parameter.
+ * </p>
+ * Names are written once and then referred with their index in the name table.
+ * Times are written as the difference from the previous time in seconds, and integers as zigzag varints.
+ * <br> Times are read with the same {@code yyyy-M-d_H:m:s} format as the text input with {@code TimeFormat},
+ * and the fields that are written with 1 digit are kept, so the same text is read back.
+ * @see BinaryLogWriter
+ * @see BinaryLogReader
+ */
+public class BinaryLogFormat {
+    /**
+     * The first bytes of a binary command log. The first byte can not be the first byte of a UTF-8 text.
+     */
+    static final byte[] MAGIC = {(byte) 0x89, 'S', 'H', 'L'};
+    /**
+     * The version of the format.
+     * <br> Version 2 added {@link BinaryLogFormat#TAG_SHORT_TIME}.
+     */
+    static final byte VERSION = 2;
+    /**
+     * The first version that can be read. The records of the older versions are the same with the current version.
+     */
+    static final byte FIRST_VERSION = 1;
+    /**
+     * Commands according to their opcodes.
+     */
+    static final Command[] COMMANDS = Command.values();
+    /**
+     * The opcode of a line that is kept as text.
+     */
+    static final int RAW_LINE = 0xFF;
+    /**
+     * Maximum number of the parameters of a record. A line that has more parameters is kept as text.
+     */
+    static final int MAX_VALUES = 1 << 16;
+    /**
+     * The greatest color that can be written with {@link BinaryLogFormat#TAG_COLOR}.
+     */
+    static final int MAX_COLOR = 0xFFFFFF;
+
+    /**
+     * Tag of a name that is in the name table. Value: index in the table.
+     */
+    static final int TAG_NAME_REF = 0;
+    /**
+     * Tag of a name that is not in the name table yet. Value: the text. It is added to the table.
+     */
+    static final int TAG_NEW_NAME = 1;
+    /**
+     * Tag of a time. Value: difference from the previous time in seconds.
+     */
+    static final int TAG_TIME = 2;
+    /**
+     * Tag of an integer. Value: the integer.
+     */
+    static final int TAG_INT = 3;
+    /**
+     * Tag of a color code. Value: the color.
+     */
+    static final int TAG_COLOR = 4;
+    /**
+     * Tag of the "On" status. There is no value.
+     */
+    static final int TAG_ON = 5;
+    /**
+     * Tag of the "Off" status. There is no value.
+     */
+    static final int TAG_OFF = 6;
+    /**
+     * Tag of a time that has fields with 1 digit, such as {@code 2023-4-9_3:00:00}.
+     * Value: difference from the previous time in seconds and a layout byte.
+     * Each bit of the layout shows a field that is written with 1 digit: month, day, hour, minute and second from bit 0.
+     */
+    static final int TAG_SHORT_TIME = 7;
+    /**
+     * Indexes of the month, day, hour, minute and second fields in a time text of the {@code yyyy-MM-dd_HH:mm:ss} format.
+     */
+    private static final int[] TIME_FIELDS = {5, 8, 11, 14, 17};
+
+    /**
+     * Gets the opcode of an action name.
+     * @param actionName A {@code String} that is an action name.
+     * @return An {@code int} that is the opcode. If the action name is unknown, returns {@link BinaryLogFormat#RAW_LINE}.
+     */
+    static int getOpcode(String actionName){
+        Command command = Command.of(actionName);
+        return Validations.isNull(command) ? RAW_LINE : command.ordinal();
+    }
+
+    /**
+     * Converts a time text to seconds of the local time if it can be converted back to the same text.
+     * <br> A time such as {@code 2023-2-31_00:00:00} that is moved to another month is not converted.
+     * @param str A {@code String}.
+     * @return The seconds as a {@code Long}, or null if the text is not a time.
+     * @see TimeFormat#parseLocal(String)
+     */
+    static Long timeToSeconds(String str){
+        long localTime = TimeFormat.parseLocal(str);
+        if (localTime == TimeFormat.NONE){
+            return null;
+        }
+        long seconds = Math.floorDiv(localTime, 1000L);
+        return str.equals(secondsToTime(seconds, timeLayout(str))) ? seconds : null;
+    }
+
+    /**
+     * Finds the fields of a time text that are written with 1 digit.
+     * @param str A {@code String} in the {@code yyyy-M-d_H:m:s} format.
+     * @return An {@code int} that is the layout of {@link BinaryLogFormat#TAG_SHORT_TIME}. It is 0 for the
+     * {@code yyyy-MM-dd_HH:mm:ss} format.
+     */
+    static int timeLayout(String str){
+        int layout = 0;
+        int position = 5;
+        for (int field = 0; field < TIME_FIELDS.length; field++){
+            if (position + 1 == str.length() || !Character.isDigit(str.charAt(position + 1))){
+                layout |= 1 << field;
+                position += 2;
+            } else {
+                position += 3;
+            }
+        }
+        return layout;
+    }
+
+    /**
+     * Converts seconds of the local time to a time text.
+     * @param seconds A {@code long} from {@link BinaryLogFormat#timeToSeconds(String)}.
+     * @param layout An {@code int} from {@link BinaryLogFormat#timeLayout(String)}.
+     * @return A {@code String} that represents the time, or null if the year does not have 4 digits
+     * or a field of the layout does not have 1 digit.
+     * @see TimeFormat#formatLocal(long)
+     */
+    static String secondsToTime(long seconds, int layout){
+        if (seconds > Long.MAX_VALUE / 1000 || seconds < Long.MIN_VALUE / 1000){
+            return null;
+        }
+        String text = TimeFormat.formatLocal(seconds * 1000);
+        if (text == null || layout == 0){
+            return text;
+        }
+        StringBuilder shortText = new StringBuilder(text);
+        for (int field = TIME_FIELDS.length - 1; field >= 0; field--){
+            if ((layout & (1 << field)) != 0){
+                if (text.charAt(TIME_FIELDS[field]) != '0'){
+                    return null;
+                }
+                shortText.deleteCharAt(TIME_FIELDS[field]);
+            }
+        }
+        return shortText.toString();
+    }
+
+    /**
+     * Converts an integer text to a number if it can be converted back to the same text.
+     * @param str A {@code String}.
+     * @return The number as a {@code Long}, or null if the text is not a canonical integer.
+     */
+    static Long intToNumber(String str){
+        if (str.isEmpty() || str.length() > 18 || !Validations.isCanInt(str) || str.startsWith("+")){
+            return null;
+        }
+        long number = Long.parseLong(str);
+        return Long.toString(number).equals(str) ? number : null;
+    }
+
+    /**
+     * Converts a color code text to a number if it is in {@code 0xRRGGBB} format with uppercase digits.
+     * @param str A {@code String}.
+     * @return The color as an {@code Integer}, or null if the text is not a color code.
+     */
+    static Integer colorToNumber(String str){
+        if (!Validations.isColorCode(str)){
+            return null;
+        }
+        return Integer.parseInt(str.substring(2), 16);
+    }
+
+    /**
+     * Converts a color number to a color code text.
+     * @param color An {@code int} from {@link BinaryLogFormat#colorToNumber(String)}.
+     * @return A {@code String} in {@code 0xRRGGBB} format.
+     */
+    static String numberToColor(int color){
+        return String.format("0x%06X", color);
+    }
+
+    /**
+     * Encodes a signed number to an unsigned number for writing small negative numbers shortly.
+     * @param number A {@code long}.
+     * @return The zigzag encoded {@code long}.
+     */
+    static long zigzag(long number){
+        return (number << 1) ^ (number >> 63);
+    }
+
+    /**
+     * Decodes a zigzag encoded number.
+     * @param number A {@code long} from {@link BinaryLogFormat#zigzag(long)}.
+     * @return The signed {@code long}.
+     */
+    static long unzigzag(long number){
+        return (number >>> 1) ^ -(number & 1);
+    }
+}
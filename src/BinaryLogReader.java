@@ -0,0 +1,231 @@
+import java.io.BufferedInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * The {@code BinaryLogReader} class reads the {@code Actions} from a binary command log file in order.
+ * @see BinaryLogFormat
+ * @see BinaryLogWriter
+ */
+public class BinaryLogReader implements Iterator<Action>, AutoCloseable {
+    /**
+     * The stream of the binary log file.
+     */
+    private final InputStream in;
+    /**
+     * Names according to their indexes.
+     */
+    private final ArrayList<String> nameTable = new ArrayList<>();
+    /**
+     * The last time that read, as seconds.
+     */
+    private long lastSeconds = 0;
+    /**
+     * The next opcode, or -1 if it is not read yet. It is {@link BinaryLogReader#END_OF_FILE} at the end of the file.
+     */
+    private int nextOpcode = -1;
+    /**
+     * The value of {@link BinaryLogReader#nextOpcode} at the end of the file.
+     */
+    private static final int END_OF_FILE = -2;
+
+    /**
+     * Opens a binary log file and checks its header.
+     * @param filePath A {@code String} that is the path of the binary log file.
+     * @throws IOException If the file cannot be read or it is not a binary command log.
+     */
+    public BinaryLogReader(String filePath) throws IOException {
+        this.in = new BufferedInputStream(Files.newInputStream(Paths.get(filePath)), 1 << 16);
+        byte[] header = new byte[BinaryLogFormat.MAGIC.length + 1];
+        if (in.readNBytes(header, 0, header.length) != header.length
+                || !Arrays.equals(Arrays.copyOf(header, BinaryLogFormat.MAGIC.length), BinaryLogFormat.MAGIC)
+                || header[BinaryLogFormat.MAGIC.length] < BinaryLogFormat.FIRST_VERSION
+                || header[BinaryLogFormat.MAGIC.length] > BinaryLogFormat.VERSION){
+            in.close();
+            throw new IOException("Not a binary command log: " + filePath);
+        }
+    }
+
+    /**
+     * Checks the file is a binary command log according to its first bytes.
+     * @param filePath A {@code String} that is the path of the file.
+     * @return If the file starts with {@link BinaryLogFormat#MAGIC}, returns true.
+     */
+    public static boolean isBinaryLog(String filePath){
+        try (InputStream file = Files.newInputStream(Paths.get(filePath))){
+            byte[] magic = file.readNBytes(BinaryLogFormat.MAGIC.length);
+            return Arrays.equals(magic, BinaryLogFormat.MAGIC);
+        } catch (IOException e){
+            return false;
+        }
+    }
+
+    @Override
+    public boolean hasNext(){
+        if (nextOpcode == -1){
+            try {
+                int opcode = in.read();
+                nextOpcode = opcode < 0 ? END_OF_FILE : opcode;
+            } catch (IOException e){
+                throw new UncheckedIOException(e);
+            }
+        }
+        return nextOpcode != END_OF_FILE;
+    }
+
+    @Override
+    public Action next(){
+        if (!hasNext()){
+            throw new NoSuchElementException();
+        }
+        int opcode = nextOpcode;
+        nextOpcode = -1;
+        try {
+            return readAction(opcode);
+        } catch (IOException e){
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Reads the rest of a record.
+     * @param opcode An {@code int} that is the opcode of the record.
+     * @return An {@code Action} that is the same with the action of the original command line.
+     * @throws IOException If the file cannot be read or the record is broken.
+     */
+    private Action readAction(int opcode) throws IOException {
+        if (opcode == BinaryLogFormat.RAW_LINE){
+            String line = readString();
+            return new Action(line, LineTokenizer.findFieldEnds(line));
+        }
+        if (opcode >= BinaryLogFormat.COMMANDS.length){
+            throw new IOException("Unknown opcode: " + opcode);
+        }
+        String actionName = BinaryLogFormat.COMMANDS[opcode].actionName;
+        int count = readBoundedVarint("parameter count", BinaryLogFormat.MAX_VALUES);
+        ArrayList<String> values = new ArrayList<>(count);
+        StringBuilder commandText = new StringBuilder(actionName);
+        for (int i = 0; i < count; i++){
+            String value = readValue();
+            values.add(value);
+            commandText.append('\t').append(value);
+        }
+        return new Action(actionName, values, commandText.toString());
+    }
+
+    /**
+     * Reads a tagged parameter.
+     * @return A {@code String} that is the parameter.
+     * @throws IOException If the file cannot be read or the parameter is broken.
+     */
+    private String readValue() throws IOException {
+        int tag = readByte();
+        switch (tag){
+            case BinaryLogFormat.TAG_ON:
+                return "On";
+            case BinaryLogFormat.TAG_OFF:
+                return "Off";
+            case BinaryLogFormat.TAG_INT:
+                return Long.toString(BinaryLogFormat.unzigzag(readVarint()));
+            case BinaryLogFormat.TAG_COLOR:
+                return BinaryLogFormat.numberToColor(readBoundedVarint("color", BinaryLogFormat.MAX_COLOR));
+            case BinaryLogFormat.TAG_TIME:
+            case BinaryLogFormat.TAG_SHORT_TIME:
+                lastSeconds += BinaryLogFormat.unzigzag(readVarint());
+                int layout = tag == BinaryLogFormat.TAG_TIME ? 0 : readByte();
+                String time = BinaryLogFormat.secondsToTime(lastSeconds, layout);
+                if (time == null){
+                    throw new IOException("Malformed time: " + lastSeconds + " with layout " + layout);
+                }
+                return time;
+            case BinaryLogFormat.TAG_NAME_REF:
+                return nameTable.get(readBoundedVarint("name index", nameTable.size() - 1));
+            case BinaryLogFormat.TAG_NEW_NAME:
+                String name = readString();
+                nameTable.add(name);
+                return name;
+            default:
+                throw new IOException("Unknown tag: " + tag);
+        }
+    }
+
+    /**
+     * Reads a text from its UTF-8 length and bytes.
+     * @return A {@code String}.
+     * @throws IOException If the file cannot be read or the length is broken.
+     */
+    private String readString() throws IOException {
+        int length = readBoundedVarint("text length", Integer.MAX_VALUE);
+        byte[] bytes = in.readNBytes(length);
+        if (bytes.length != length){
+            throw new EOFException();
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Reads an unsigned number with 7 bits in each byte.
+     * @return A {@code long}.
+     * @throws IOException If the file cannot be read.
+     */
+    private long readVarint() throws IOException {
+        long number = 0;
+        for (int shift = 0; shift < 64; shift += 7){
+            int b = readByte();
+            number |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0){
+                return number;
+            }
+        }
+        throw new IOException("Malformed varint");
+    }
+
+    /**
+     * Reads an unsigned number that is used as a count, a length or an index.
+     * @param name A {@code String} that is the name of the number for the error message.
+     * @param max A {@code long} that is the greatest valid value. It is not greater than {@link Integer#MAX_VALUE}.
+     * @return An {@code int} between 0 and the greatest valid value.
+     * @throws IOException If the file cannot be read or the number is not between 0 and the greatest valid value.
+     */
+    private int readBoundedVarint(String name, long max) throws IOException {
+        long number = readVarint();
+        if (number < 0 || number > max){
+            throw new IOException("Malformed " + name + ": " + Long.toUnsignedString(number));
+        }
+        return (int) number;
+    }
+
+    /**
+     * Reads a byte.
+     * @return An {@code int} between 0 and 255.
+     * @throws IOException If the file cannot be read or it is ended.
+     */
+    private int readByte() throws IOException {
+        int b = in.read();
+        if (b < 0){
+            throw new EOFException();
+        }
+        return b;
+    }
+
+    /**
+     * Closes the file.
+     */
+    @Override
+    public void close(){
+        try {
+            in.close();
+        } catch (IOException e){
+            throw new UncheckedIOException(e);
+        }
+    }
+}
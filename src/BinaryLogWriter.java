@@ -0,0 +1,174 @@
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * The {@code BinaryLogWriter} class converts command files from the text format to the binary command log format.
+ * <br> Usage: {@code java BinaryLogWriter input.txt output.bin}
+ * @see BinaryLogFormat
+ * @see BinaryLogReader
+ */
+public class BinaryLogWriter implements AutoCloseable {
+    /**
+     * The stream of the binary log file.
+     */
+    private final OutputStream out;
+    /**
+     * Indexes of the names that written before.
+     */
+    private final HashMap<String, Integer> nameTable = new HashMap<>();
+    /**
+     * The last time that written, as seconds.
+     */
+    private long lastSeconds = 0;
+
+    /**
+     * Creates a binary log file and writes its header.
+     * @param filePath A {@code String} that is the path of the binary log file.
+     * @throws IOException If the file cannot be written.
+     */
+    public BinaryLogWriter(String filePath) throws IOException {
+        this.out = new BufferedOutputStream(Files.newOutputStream(Paths.get(filePath)), 1 << 16);
+        out.write(BinaryLogFormat.MAGIC);
+        out.write(BinaryLogFormat.VERSION);
+    }
+
+    /**
+     * Converts a text command file to a binary log file.
+     * @param args console arguments. The text input file path and the binary output file path.
+     * @throws IOException If a file cannot be read or written.
+     */
+    public static void main(String[] args) throws IOException {
+        InputIO inputFile = new InputIO(args[0]);
+        try (Stream<Action> actions = inputFile.streamActions(); BinaryLogWriter writer = new BinaryLogWriter(args[1])){
+            Iterator<Action> iterator = actions.iterator();
+            while (iterator.hasNext()){
+                writer.write(iterator.next());
+            }
+        }
+    }
+
+    /**
+     * Writes an action as a record.
+     * If the command text cannot be built again from the action name and parameters, or it has more than
+     * {@link BinaryLogFormat#MAX_VALUES} parameters, it is written as text.
+     * @param action An {@code Action}.
+     * @throws IOException If the file cannot be written.
+     */
+    public void write(Action action) throws IOException {
+        int opcode = BinaryLogFormat.getOpcode(action.actionName);
+        ArrayList<String> values = action.getValues();
+        if (opcode == BinaryLogFormat.RAW_LINE || values.size() > BinaryLogFormat.MAX_VALUES || !isRebuildable(action, values)){
+            out.write(BinaryLogFormat.RAW_LINE);
+            writeString(action.commandText);
+            return;
+        }
+        out.write(opcode);
+        writeVarint(values.size());
+        for (String value : values){
+            writeValue(value);
+        }
+    }
+
+    /**
+     * Checks the command text is the same with the action name and parameters joined with {@code \t}.
+     * @param action An {@code Action}.
+     * @param values Parameters of the action.
+     * @return If the command text can be built again, returns true.
+     */
+    private static boolean isRebuildable(Action action, ArrayList<String> values){
+        int length = action.actionName.length();
+        for (String value : values){
+            length += value.length() + 1;
+        }
+        return length == action.commandText.length();
+    }
+
+    /**
+     * Writes a parameter with the shortest suitable tag.
+     * @param value A {@code String} that is a parameter.
+     * @throws IOException If the file cannot be written.
+     */
+    private void writeValue(String value) throws IOException {
+        if (value.equals("On")){
+            out.write(BinaryLogFormat.TAG_ON);
+            return;
+        }
+        if (value.equals("Off")){
+            out.write(BinaryLogFormat.TAG_OFF);
+            return;
+        }
+        Long number = BinaryLogFormat.intToNumber(value);
+        if (number != null){
+            out.write(BinaryLogFormat.TAG_INT);
+            writeVarint(BinaryLogFormat.zigzag(number));
+            return;
+        }
+        Integer color = BinaryLogFormat.colorToNumber(value);
+        if (color != null){
+            out.write(BinaryLogFormat.TAG_COLOR);
+            writeVarint(color);
+            return;
+        }
+        Long seconds = BinaryLogFormat.timeToSeconds(value);
+        if (seconds != null){
+            int layout = BinaryLogFormat.timeLayout(value);
+            out.write(layout == 0 ? BinaryLogFormat.TAG_TIME : BinaryLogFormat.TAG_SHORT_TIME);
+            writeVarint(BinaryLogFormat.zigzag(seconds - lastSeconds));
+            if (layout != 0){
+                out.write(layout);
+            }
+            lastSeconds = seconds;
+            return;
+        }
+        Integer index = nameTable.get(value);
+        if (index != null){
+            out.write(BinaryLogFormat.TAG_NAME_REF);
+            writeVarint(index);
+            return;
+        }
+        nameTable.put(value, nameTable.size());
+        out.write(BinaryLogFormat.TAG_NEW_NAME);
+        writeString(value);
+    }
+
+    /**
+     * Writes a text as its UTF-8 length and bytes.
+     * @param str A {@code String}.
+     * @throws IOException If the file cannot be written.
+     */
+    private void writeString(String str) throws IOException {
+        byte[] bytes = str.getBytes(StandardCharsets.UTF_8);
+        writeVarint(bytes.length);
+        out.write(bytes);
+    }
+
+    /**
+     * Writes an unsigned number with 7 bits in each byte.
+     * @param number A {@code long} that is not negative as unsigned.
+     * @throws IOException If the file cannot be written.
+     */
+    private void writeVarint(long number) throws IOException {
+        while ((number & ~0x7FL) != 0){
+            out.write((int) ((number & 0x7F) | 0x80));
+            number >>>= 7;
+        }
+        out.write((int) number);
+    }
+
+    /**
+     * Writes the remaining records and closes the file.
+     * @throws IOException If the file cannot be written.
+     */
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+}
@@ -0,0 +1,197 @@
+import java.util.ArrayList;
+import java.util.HashMap;
+
+/**
+ * <p>
+ *   The {@code Command} enum is the dispatch table of the actions.
+ *   Each command keeps its action name and the {@code SmartDeviceController} method that executes it.
+ * </p>
+ * The table is created once, so an action is executed with a direct call instead of finding the method with reflection.
+ * <br> Commands that change a device can target all devices whose names start with a prefix, such as {@code Kitchen*},
+ * or all members of a device group, such as {@code @Kitchen}.
+ * <br> The order of the commands must not be changed, because the ordinals are the opcodes of the binary command logs.
+ * @see SmartDeviceController#actionHandler(Action)
+ * @see BinaryLogFormat
+ */
+public enum Command {
+    ADD("Add", values -> {
+        SmartDeviceController.add(values);
+        return null;
+    }),
+    REMOVE("Remove", SmartDeviceController::remove),
+    SKIP_MINUTES("SkipMinutes", values -> {
+        SmartDeviceController.skipMinutes(values);
+        return null;
+    }),
+    SET_TIME("SetTime", values -> {
+        SmartDeviceController.setTime(values);
+        return null;
+    }),
+    SET_INITIAL_TIME("SetInitialTime", SmartDeviceController::setInitialTime),
+    SWITCH("Switch", true, values -> {
+        SmartDeviceController.switchStatus(values);
+        return null;
+    }),
+    CHANGE_NAME("ChangeName", values -> {
+        SmartDeviceController.changeName(values);
+        return null;
+    }),
+    SET_SWITCH_TIME("SetSwitchTime", true, values -> {
+        SmartDeviceController.setSwitchTime(values);
+        return null;
+    }),
+    PLUG_IN("PlugIn", true, values -> {
+        SmartDeviceController.plugIn(values);
+        return null;
+    }),
+    PLUG_OUT("PlugOut", true, values -> {
+        SmartDeviceController.plugOut(values);
+        return null;
+    }),
+    SET_KELVIN("SetKelvin", true, values -> {
+        SmartDeviceController.setKelvin(values);
+        return null;
+    }),
+    SET_BRIGHTNESS("SetBrightness", true, values -> {
+        SmartDeviceController.setBrightness(values);
+        return null;
+    }),
+    SET_COLOR("SetColor", true, values -> {
+        SmartDeviceController.setColor(values);
+        return null;
+    }),
+    SET_COLOR_CODE("SetColorCode", true, values -> {
+        SmartDeviceController.setColorCode(values);
+        return null;
+    }),
+    SET_WHITE("SetWhite", true, values -> {
+        SmartDeviceController.setWhite(values);
+        return null;
+    }),
+    Z_REPORT("ZReport", SmartDeviceController::zReport),
+    NOP("Nop", values -> {
+        SmartDeviceController.nop(values);
+        return null;
+    }),
+    RUN_UNTIL("RunUntil", values -> {
+        SmartDeviceController.runUntil(values);
+        return null;
+    }),
+    ADD_ROUTINE("AddRoutine", values -> {
+        SmartDeviceController.addRoutine(values);
+        return null;
+    }),
+    REMOVE_ROUTINES("RemoveRoutines", values -> {
+        SmartDeviceController.removeRoutines(values);
+        return null;
+    }),
+    SCHEDULE_ACTION("ScheduleAction", SmartDeviceController::scheduleAction),
+    CANCEL_ACTION("CancelAction", values -> {
+        SmartDeviceController.cancelAction(values);
+        return null;
+    }),
+    LIST_ACTIONS("ListActions", SmartDeviceController::listActions),
+    CONSUMPTION("Consumption", SmartDeviceController::consumption),
+    CLOCK_STATS("ClockStats", SmartDeviceController::clockStats),
+    ADD_GROUP("AddGroup", values -> {
+        SmartDeviceController.addGroup(values);
+        return null;
+    }),
+    REMOVE_FROM_GROUP("RemoveFromGroup", values -> {
+        SmartDeviceController.removeFromGroup(values);
+        return null;
+    }),
+    REMOVE_GROUP("RemoveGroup", values -> {
+        SmartDeviceController.removeGroup(values);
+        return null;
+    }),
+    LIST_GROUP("ListGroup", SmartDeviceController::listGroup),
+    SNAPSHOT("Snapshot", SmartDeviceController::snapshot),
+    RESTORE("Restore", SmartDeviceController::restore);
+
+    /**
+     * The commands according to their action names.
+     */
+    private static final HashMap<String, Command> commandsByName = new HashMap<>();
+
+    static {
+        for (Command command : values()){
+            commandsByName.put(command.actionName, command);
+        }
+    }
+
+    /**
+     * The action name of the command.
+     */
+    public final String actionName;
+    /**
+     * If it is true, the first parameter is a device name that can be a prefix or a group target.
+     * @see SmartDeviceController#executeForTargets(Command, ArrayList)
+     * @see SmartDeviceController#executeForGroup(Command, ArrayList)
+     */
+    public final boolean targetsDevices;
+    /**
+     * The method that executes the command.
+     */
+    private final Handler handler;
+
+    /**
+     * Creates a {@code Command}.
+     * @param actionName A {@code String} that is the action name.
+     * @param handler A {@code Handler} that executes the command.
+     */
+    Command(String actionName, Handler handler){
+        this(actionName, false, handler);
+    }
+
+    /**
+     * Creates a {@code Command}.
+     * @param actionName A {@code String} that is the action name.
+     * @param targetsDevices If it is true, the first parameter is a device name that can be a prefix or a group target.
+     * @param handler A {@code Handler} that executes the command.
+     */
+    Command(String actionName, boolean targetsDevices, Handler handler){
+        this.actionName = actionName;
+        this.targetsDevices = targetsDevices;
+        this.handler = handler;
+    }
+
+    /**
+     * Finds the command of an action name.
+     * @param actionName A {@code String} that is the action name.
+     * @return The {@code Command}, or null if the action name is unknown.
+     */
+    public static Command of(String actionName){
+        return commandsByName.get(actionName);
+    }
+
+    /**
+     * Executes the command with parameters.
+     * <br> If the command fails with an error that is not a {@code DeviceExceptions}, the error is ignored
+     * and there is no response.
+     * @param values An {@code ArrayList<String>} that contains the parameters of the action.
+     * @return An {@code Object} that is the response of the command. It can be null.
+     * @throws DeviceExceptions If the command fails.
+     */
+    public Object execute(ArrayList<String> values) throws DeviceExceptions {
+        try {
+            return handler.execute(values);
+        } catch (RuntimeException e){
+            return null;
+        }
+    }
+
+    /**
+     * The {@code Handler} interface represents a {@code SmartDeviceController} method that executes a command.
+     */
+    @FunctionalInterface
+    interface Handler {
+        /**
+         * Executes the command with parameters.
+         * @param values An {@code ArrayList<String>} that contains the parameters of the action.
+         * @return An {@code Object} that is the response of the command. It can be null.
+         * @throws DeviceExceptions If the command fails.
+         */
+        Object execute(ArrayList<String> values) throws DeviceExceptions;
+    }
+}
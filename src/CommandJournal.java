@@ -0,0 +1,466 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+/**
+ * <p>
+ *   The {@code CommandJournal} class is a write-ahead journal of the actions of a house.
+ *   Each action is appended before it is executed, so the state of the house can be recovered after the program dies
+ *   by executing the journaled actions again.
+ * </p>
+ * <p>
+ *   A journal starts with {@link CommandJournal#MAGIC}, {@link CommandJournal#VERSION} and a generation number.
+ *   Then each action is a record: the length of the command text as bytes, the CRC-32 of the bytes and the UTF-8 bytes.
+ *   A record that is torn by a crash fails its checksum, and the journal is cut before it.
+ * </p>
+ * <p>
+ *   Records are collected in a buffer and written to the file with one channel write and one {@code fsync} per batch
+ *   according to the {@link SyncPolicy}. The background sync swaps the buffers, so an append does not wait for the disk.
+ * </p>
+ * A checkpoint is a {@code HouseSnapshot} of the house with the next generation number. After it is written,
+ * the journal is started again with the same generation, so recovery loads the checkpoint and executes only the actions
+ * of the journal that are after it. A journal whose generation is older than the checkpoint is ignored.
+ * @see SmartDeviceController#actionHandler(Action)
+ * @see HouseSnapshot
+ * @see House#journal
+ */
+public class CommandJournal implements AutoCloseable {
+    /**
+     * The first bytes of a journal. The first byte can not be the first byte of a UTF-8 text.
+     */
+    static final byte[] MAGIC = {(byte) 0x89, 'S', 'H', 'J'};
+    /**
+     * The first bytes of a checkpoint. The snapshot of the house follows the generation number.
+     */
+    static final byte[] CHECKPOINT_MAGIC = {(byte) 0x89, 'S', 'H', 'C'};
+    /**
+     * The version of the format.
+     */
+    static final byte VERSION = 1;
+    /**
+     * Size of the header of a journal or a checkpoint as bytes.
+     */
+    private static final int HEADER_SIZE = MAGIC.length + 1 + Long.BYTES;
+    /**
+     * Size of the length and the checksum of a record as bytes.
+     */
+    private static final int RECORD_HEADER_SIZE = 2 * Integer.BYTES;
+    /**
+     * Size of the unwritten records that are written without waiting for the sync policy.
+     */
+    private static final int WRITE_SIZE = 1 << 16;
+
+    /**
+     * The {@code SyncPolicy} enum represents when the journaled actions are forced to the disk.
+     */
+    public enum SyncPolicy {
+        /**
+         * Forces every action before it is executed. An executed action is never lost.
+         */
+        EVERY_COMMAND,
+        /**
+         * Forces the actions when a specific number of actions are collected.
+         */
+        RECORDS,
+        /**
+         * Forces the collected actions on a background thread after a specific time.
+         */
+        INTERVAL,
+        /**
+         * Writes the actions when the buffer is full and leaves forcing them to the operating system.
+         */
+        NONE
+    }
+
+    /**
+     * The path of the journal.
+     */
+    private final Path path;
+    /**
+     * The path of the checkpoint.
+     */
+    private final Path checkpointPath;
+    /**
+     * Decides when the actions are forced to the disk.
+     */
+    private final SyncPolicy syncPolicy;
+    /**
+     * Number of actions for {@link SyncPolicy#RECORDS} or time as milliseconds for {@link SyncPolicy#INTERVAL}.
+     */
+    private final long syncThreshold;
+    /**
+     * Number of the journaled actions between two checkpoints. It is 0 if checkpoints are written only after restores.
+     */
+    private final long checkpointInterval;
+    /**
+     * The channel of the journal. It is used only while holding {@link CommandJournal#ioLock}.
+     */
+    private FileChannel channel;
+    /**
+     * The generation of the journal. It is the generation of the last checkpoint, or 0 if there is not.
+     */
+    private long generation;
+    /**
+     * Records that are not written to the channel yet.
+     */
+    private ByteBuffer pending = ByteBuffer.allocate(WRITE_SIZE);
+    /**
+     * The buffer that is being written while the next records are collected in {@link CommandJournal#pending}.
+     */
+    private ByteBuffer writing = ByteBuffer.allocate(WRITE_SIZE);
+    /**
+     * Number of the records in {@link CommandJournal#pending}.
+     */
+    private int pendingRecords = 0;
+    /**
+     * Size of the last appended record as bytes.
+     */
+    private int lastRecordSize = 0;
+    /**
+     * Number of the actions that are journaled after the last checkpoint.
+     */
+    private long recordsSinceCheckpoint = 0;
+    /**
+     * Shows there are records that are written to the channel but not forced to the disk.
+     * It is used only while holding {@link CommandJournal#ioLock}.
+     */
+    private boolean unforced = false;
+    /**
+     * The checksum of the records.
+     */
+    private final CRC32 checksum = new CRC32();
+    /**
+     * The lock of the channel. Appends do not hold it, so they do not wait for the disk.
+     */
+    private final Object ioLock = new Object();
+    /**
+     * The thread that forces the actions for {@link SyncPolicy#INTERVAL}, or null.
+     */
+    private ScheduledExecutorService syncer = null;
+    /**
+     * The error of the last background sync. It is thrown by the next append.
+     */
+    private volatile IOException syncFailure = null;
+
+    /**
+     * Creates a {@code CommandJournal}. The journal is opened by {@link CommandJournal#open(ProgramOptions)}.
+     * @param path A {@code Path} that is the journal.
+     * @param options A {@code ProgramOptions} that contains the sync policy and the checkpoint interval.
+     */
+    private CommandJournal(Path path, ProgramOptions options){
+        this.path = path;
+        this.checkpointPath = path.resolveSibling(path.getFileName() + ".checkpoint");
+        this.syncPolicy = options.syncPolicy;
+        this.syncThreshold = options.syncThreshold;
+        this.checkpointInterval = options.checkpointInterval;
+    }
+
+    /**
+     * Recovers the current house from the checkpoint and the journal of the options, and opens the journal for appending.
+     * <br> The actions of the journal are executed without their outputs. The journal is cut after its last valid record.
+     * @param options A {@code ProgramOptions} that contains the journal path and the journal options.
+     * @return A {@code CommandJournal} that is opened. It must be set to {@link House#journal} after it.
+     * @throws IOException If the checkpoint or the journal cannot be read or written.
+     */
+    public static CommandJournal open(ProgramOptions options) throws IOException {
+        CommandJournal journal = new CommandJournal(Paths.get(options.journalPath), options);
+        journal.recover();
+        if (journal.syncPolicy == SyncPolicy.INTERVAL){
+            journal.syncer = Executors.newSingleThreadScheduledExecutor(task -> {
+                Thread thread = new Thread(task, "journal-sync");
+                thread.setDaemon(true);
+                return thread;
+            });
+            journal.syncer.scheduleWithFixedDelay(journal::syncInBackground,
+                    journal.syncThreshold, journal.syncThreshold, TimeUnit.MILLISECONDS);
+        }
+        return journal;
+    }
+
+    /**
+     * Appends an action to the journal. It is forced to the disk according to the sync policy.
+     * @param action An {@code Action} that will be executed.
+     * @throws UncheckedIOException If the journal cannot be written.
+     */
+    public void append(Action action){
+        if (!Validations.isNull(syncFailure)){
+            throw new UncheckedIOException(syncFailure);
+        }
+        byte[] bytes = action.commandText.getBytes(StandardCharsets.UTF_8);
+        boolean due;
+        synchronized (this){
+            if (pending.remaining() < RECORD_HEADER_SIZE + bytes.length){
+                ByteBuffer buffer = ByteBuffer.allocate(Math.max(pending.capacity() * 2, pending.position() + RECORD_HEADER_SIZE + bytes.length));
+                pending.flip();
+                pending = buffer.put(pending);
+            }
+            checksum.reset();
+            checksum.update(bytes, 0, bytes.length);
+            pending.putInt(bytes.length);
+            pending.putInt((int) checksum.getValue());
+            pending.put(bytes);
+            pendingRecords++;
+            lastRecordSize = RECORD_HEADER_SIZE + bytes.length;
+            switch (syncPolicy){
+                case EVERY_COMMAND:
+                    due = true;
+                    break;
+                case RECORDS:
+                    due = pendingRecords >= syncThreshold;
+                    break;
+                default:
+                    due = pending.position() >= WRITE_SIZE;
+                    break;
+            }
+        }
+        recordsSinceCheckpoint++;
+        if (due){
+            try {
+                sync(syncPolicy == SyncPolicy.EVERY_COMMAND || syncPolicy == SyncPolicy.RECORDS);
+            } catch (IOException e){
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    /**
+     * Removes the last appended action from the journal, so it is not executed again by recovery.
+     * <br> It is used for an action that fails before it changes the house, such as a wrong initial time.
+     * It must be called before {@link CommandJournal#afterCommand(Command)} of the action.
+     * @throws UncheckedIOException If the journal cannot be written.
+     */
+    public void discardLast(){
+        try {
+            sync(false);
+            synchronized (ioLock){
+                channel.truncate(channel.size() - lastRecordSize);
+                channel.force(false);
+                unforced = false;
+            }
+        } catch (IOException e){
+            throw new UncheckedIOException(e);
+        }
+        lastRecordSize = 0;
+        recordsSinceCheckpoint--;
+    }
+
+    /**
+     * Writes a checkpoint after an action if it is a restore or enough actions are journaled after the last checkpoint.
+     * <br> A restore is always followed by a checkpoint, so recovery does not read the restored snapshot file again.
+     * @param command A {@code Command} that is executed. It can be null.
+     * @throws UncheckedIOException If the checkpoint or the journal cannot be written.
+     */
+    public void afterCommand(Command command){
+        if (command != Command.RESTORE && (checkpointInterval == 0 || recordsSinceCheckpoint < checkpointInterval)){
+            return;
+        }
+        try {
+            checkpoint();
+        } catch (IOException e){
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Forces all journaled actions to the disk and closes the journal.
+     * @throws IOException If the journal cannot be written.
+     */
+    @Override
+    public void close() throws IOException {
+        if (!Validations.isNull(syncer)){
+            syncer.shutdown();
+        }
+        sync(true);
+        synchronized (ioLock){
+            channel.close();
+        }
+    }
+
+    /**
+     * Writes the state of the current house to the checkpoint with the next generation and starts the journal again.
+     * If the program dies before the journal is started again, recovery ignores the old journal with its generation.
+     * @throws IOException If the checkpoint or the journal cannot be written.
+     */
+    private void checkpoint() throws IOException {
+        sync(true);
+        ByteBuffer snapshot = HouseSnapshot.encode(House.current());
+        HouseSnapshot.writeFile(checkpointPath, header(CHECKPOINT_MAGIC, generation + 1), snapshot);
+        generation++;
+        synchronized (ioLock){
+            channel.close();
+            startJournal();
+        }
+        recordsSinceCheckpoint = 0;
+    }
+
+    /**
+     * Loads the checkpoint and executes the actions of the journal that have the same generation.
+     * Then opens the journal after its last valid record, or starts a new journal.
+     * @throws IOException If the checkpoint or the journal is not valid, or they cannot be read or written.
+     */
+    private void recover() throws IOException {
+        generation = 0;
+        if (Files.exists(checkpointPath)){
+            ByteBuffer buffer = HouseSnapshot.readFile(checkpointPath);
+            long checkpointGeneration = readHeader(buffer, CHECKPOINT_MAGIC);
+            if (checkpointGeneration < 0){
+                throw new IOException("Not a checkpoint: " + checkpointPath);
+            }
+            HouseSnapshot.decode(House.current(), buffer);
+            generation = checkpointGeneration;
+        }
+        long validEnd = -1;
+        if (Files.exists(path)){
+            ByteBuffer buffer = HouseSnapshot.readFile(path);
+            long journalGeneration = readHeader(buffer, MAGIC);
+            if (journalGeneration < 0){
+                throw new IOException("Not a journal: " + path);
+            }
+            if (journalGeneration > generation){
+                throw new IOException("Journal is newer than its checkpoint: " + path);
+            }
+            if (journalGeneration == generation){
+                validEnd = replay(buffer);
+            }
+        }
+        if (validEnd < 0){
+            startJournal();
+            return;
+        }
+        channel = FileChannel.open(path, StandardOpenOption.WRITE);
+        channel.truncate(validEnd);
+        channel.position(validEnd);
+    }
+
+    /**
+     * Executes the valid records of a journal in order. The outputs of the actions are not written.
+     * <br> A record of a wrong initial time, which an older journal can start with, is skipped.
+     * @param buffer A {@code ByteBuffer} that is positioned after the header of the journal.
+     * @return A {@code long} that is the end of the last valid record in the journal.
+     * @throws IOException If an action cannot be executed again.
+     */
+    private long replay(ByteBuffer buffer) throws IOException {
+        while (buffer.remaining() >= RECORD_HEADER_SIZE){
+            int start = buffer.position();
+            int length = buffer.getInt();
+            int expected = buffer.getInt();
+            if (length < 0 || length > buffer.remaining()){
+                buffer.position(start);
+                break;
+            }
+            byte[] bytes = new byte[length];
+            buffer.get(bytes);
+            checksum.reset();
+            checksum.update(bytes, 0, length);
+            if ((int) checksum.getValue() != expected){
+                buffer.position(start);
+                break;
+            }
+            String commandText = new String(bytes, StandardCharsets.UTF_8);
+            try {
+                SmartDeviceController.actionHandler(new Action(commandText, LineTokenizer.findFieldEnds(commandText)));
+            } catch (DeviceExceptions.InitialTimeException e){
+                continue;
+            } catch (DeviceExceptions e){
+                throw new IOException("Journaled action can not be executed: " + commandText, e);
+            }
+            recordsSinceCheckpoint++;
+        }
+        return buffer.position();
+    }
+
+    /**
+     * Writes a new journal that has only the header over the journal and opens it for appending.
+     * @throws IOException If the journal cannot be written.
+     */
+    private void startJournal() throws IOException {
+        HouseSnapshot.writeFile(path, header(MAGIC, generation));
+        channel = FileChannel.open(path, StandardOpenOption.WRITE);
+        channel.position(channel.size());
+    }
+
+    /**
+     * Writes the collected records to the channel with one write.
+     * Records that are appended meanwhile are collected in the other buffer.
+     * @param force If it is true, the records and the records that are written before are forced to the disk.
+     * @throws IOException If the journal cannot be written.
+     */
+    private void sync(boolean force) throws IOException {
+        synchronized (ioLock){
+            ByteBuffer buffer = null;
+            synchronized (this){
+                if (pendingRecords > 0){
+                    buffer = pending;
+                    pending = writing;
+                    writing = buffer;
+                    pendingRecords = 0;
+                }
+            }
+            if (!Validations.isNull(buffer)){
+                buffer.flip();
+                while (buffer.hasRemaining()){
+                    channel.write(buffer);
+                }
+                buffer.clear();
+                unforced = true;
+            }
+            if (force && unforced){
+                channel.force(false);
+                unforced = false;
+            }
+        }
+    }
+
+    /**
+     * Forces the collected records on the background thread. The error is kept for the next append.
+     */
+    private void syncInBackground(){
+        try {
+            sync(true);
+        } catch (IOException e){
+            syncFailure = e;
+        }
+    }
+
+    /**
+     * Creates the header of a journal or a checkpoint.
+     * @param magic A {@code byte[]} that is the first bytes of the file.
+     * @param generation A {@code long} that is the generation.
+     * @return A {@code ByteBuffer} that is ready to be written.
+     */
+    private static ByteBuffer header(byte[] magic, long generation){
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.put(magic).put(VERSION).putLong(generation);
+        header.flip();
+        return header;
+    }
+
+    /**
+     * Reads the header of a journal or a checkpoint.
+     * @param buffer A {@code ByteBuffer} that is positioned at the start of the file.
+     * @param magic A {@code byte[]} that is the expected first bytes of the file.
+     * @return A {@code long} that is the generation, or -1 if the header is not valid.
+     */
+    private static long readHeader(ByteBuffer buffer, byte[] magic){
+        if (buffer.remaining() < HEADER_SIZE){
+            return -1;
+        }
+        byte[] bytes = new byte[magic.length];
+        buffer.get(bytes);
+        if (!Arrays.equals(bytes, magic) || buffer.get() != VERSION){
+            return -1;
+        }
+        return buffer.getLong();
+    }
+}
@@ -0,0 +1,90 @@
+import java.util.Arrays;
+
+/**
+ * <p>
+ *   The {@code DeviceGroup} class is a named group of {@code SmartDevice}s, such as a room, a floor or a circuit.
+ * </p>
+ * The ids of the members are kept in a sorted {@code int} array, so a group takes about 4 bytes per member.
+ * Adding a device that is newer than all members takes {@code O(1)} time, and finding a member takes {@code O(log n)} time.
+ * Members are kept by their ids, so changing the name of a device does not change its groups.
+ * @see House#groups
+ * @see SmartDeviceController#addGroup(java.util.ArrayList)
+ */
+public class DeviceGroup {
+    /**
+     * The name of the group.
+     */
+    public final String name;
+    /**
+     * Ids of the members in ascending order. Only the first {@link DeviceGroup#size} are used.
+     */
+    private int[] members = new int[4];
+    /**
+     * Number of the members.
+     */
+    private int size = 0;
+
+    /**
+     * Creates an empty {@code DeviceGroup}.
+     * @param name A {@code String} that is the name of the group.
+     */
+    public DeviceGroup(String name){
+        this.name = name;
+    }
+
+    /**
+     * Adds a device to the group if it is not a member.
+     * @param deviceId An {@code int} that is the id of the device.
+     */
+    public void add(int deviceId){
+        int index = size > 0 && members[size - 1] < deviceId ? -size - 1 : Arrays.binarySearch(members, 0, size, deviceId);
+        if (index >= 0){
+            return;
+        }
+        index = -index - 1;
+        if (size == members.length){
+            members = Arrays.copyOf(members, size * 2);
+        }
+        System.arraycopy(members, index, members, index + 1, size - index);
+        members[index] = deviceId;
+        size++;
+    }
+
+    /**
+     * Removes a device from the group if it is a member.
+     * @param deviceId An {@code int} that is the id of the device.
+     */
+    public void remove(int deviceId){
+        int index = Arrays.binarySearch(members, 0, size, deviceId);
+        if (index < 0){
+            return;
+        }
+        System.arraycopy(members, index + 1, members, index, size - index - 1);
+        size--;
+    }
+
+    /**
+     * Checks a device is a member of the group.
+     * @param deviceId An {@code int} that is the id of the device.
+     * @return If the device is a member, returns true.
+     */
+    public boolean contains(int deviceId){
+        return Arrays.binarySearch(members, 0, size, deviceId) >= 0;
+    }
+
+    /**
+     * Gets the ids of the members.
+     * @return An {@code int[]} in ascending order.
+     */
+    public int[] getMembers(){
+        return Arrays.copyOf(members, size);
+    }
+
+    /**
+     * Gets the number of the members.
+     * @return An {@code int}.
+     */
+    public int size(){
+        return size;
+    }
+}
@@ -1,133 +1,80 @@
 import java.util.ArrayList;
-import java.util.Dictionary;
-import java.util.Hashtable;
+import java.util.LinkedHashSet;
+import java.util.List;
 
 /**
  * The {@code DeviceLogger} class sorts {@code SmartDevice}'s ids and keeps orders for reporting.
+ * <br> The order of the current house is kept in {@link House#deviceOrder} in three categories:
+ * devices that their workloads are not executed yet in order of their switch times,
+ * devices that their workloads were executed and devices that do not have any operation.
  *
+ * @see DeviceOrderIndex
  * @see SmartDeviceController#zReport(ArrayList)
  */
 public class DeviceLogger {
 
-    /**
-     * <p>
-     * Represents the list that {@code SmartDevice}'s id in which list
-     * ({@link DeviceLogger#nonExecuted}, {@link DeviceLogger#executed},{@link DeviceLogger#nonOperation})
-     * </p>
-     *
-     *<b>Key</b>:  id of {@code SmartDevice} ({@code Integer})
-     *<br>
-     *<b>Value</b>: list of {@code SmartDevice}'s ids ({@code ArrayList<Integer>})
-     * @see SmartDevice
-     */
-    private static Dictionary<Integer, ArrayList<Integer>> deviceMap = new Hashtable<>();
-    /**
-     * Contains the list of {@code SmartDevice}'s ids that workload does not execute yet.
-     * @see Workload
-     * @see SmartDevice
-     */
-    public static ArrayList<Integer> nonExecuted = new ArrayList<>();
-    /**
-     * Contains the list of {@code SmartDevice}'s ids that workload was executed.
-     * @see Workload
-     * @see SmartDevice
-     */
-    public static ArrayList<Integer> executed = new ArrayList<>();
-    /**
-     * Contains the list of {@code SmartDevice}'s ids that does not have any workload.
-     * @see Workload
-     * @see SmartDevice
-     */
-    public static ArrayList<Integer> nonOperation = new ArrayList<>();
-
     /**
      * Gets ordered list of {@code SmartDevice}'s ids.
      * @return An {@code ArrayList<Integer>} ordered list of {@code SmartDevice}'s ids;
      * @see SmartDevice
      */
     public static ArrayList<Integer> getOrderedDeviceIDs(){
-        ArrayList<Integer> orderedList = new ArrayList<>();
-        orderedList.addAll(nonExecuted);
-        orderedList.addAll(executed);
-        orderedList.addAll(nonOperation);
-        return orderedList;
+        return House.current().deviceOrder.toList();
     }
     /**
-     * Add a {@code SmartDevice}'s id to executed list to specified index.
+     * Add a {@code SmartDevice}'s id to the start of executed devices.
      * @param device A {@code SmartDevice} that will add.
-     * @param index A {@code int} represents the index will add.
      * @see SmartDevice
-     * @see DeviceLogger#executed
+     * @see DeviceOrderIndex#EXECUTED
      */
-    public static void addExecuted(SmartDevice device, int index){
-        delete(device.getId());
-        executed.add(index,device.getId());
-        deviceMap.put(device.getId(), executed);
+    public static void addExecuted(SmartDevice device){
+        House.current().deviceOrder.addFirst(device.getId(), DeviceOrderIndex.EXECUTED, 0);
     }
 
     /**
-     * Add a {@code SmartDevice}'s id to nonExecuted list to true index.
+     * Adds the ids of the {@code SmartDevice}s that are executed at the same time to the start of executed devices.
+     * <br> The result is the same as calling {@link DeviceLogger#addExecuted(SmartDevice)}
+     * for the devices from the last one to the first one.
+     * If a device is given more than once, its first position is used.
+     * @param devices A {@code List<SmartDevice>} in order of execution.
+     * @see SmartDevice
+     * @see DeviceOrderIndex#EXECUTED
+     */
+    public static void addExecutedAll(List<SmartDevice> devices){
+        LinkedHashSet<SmartDevice> executedDevices = new LinkedHashSet<>(devices);
+        ArrayList<SmartDevice> orderedDevices = new ArrayList<>(executedDevices);
+        for (int i = orderedDevices.size() - 1; i >= 0; i--){
+            addExecuted(orderedDevices.get(i));
+        }
+    }
+
+    /**
+     * Add a {@code SmartDevice}'s id to non executed devices according to its switch time.
+     * <br> It is added after the devices that have the same switch time.
      * @param device A {@code SmartDevice} that will add.
      * @see SmartDevice
-     * @see DeviceLogger#nonExecuted
-     * @see DeviceLogger#trueDeviceIndex(ArrayList, SmartDevice)
+     * @see DeviceOrderIndex#NON_EXECUTED
      */
     public static void addNonExecuted(SmartDevice device){
-        delete(device.getId());
-        int index = trueDeviceIndex(nonExecuted,device);
-        nonExecuted.add(index,device.getId());
-        deviceMap.put(device.getId(), nonExecuted);
+        House.current().deviceOrder.addLast(device.getId(), DeviceOrderIndex.NON_EXECUTED, device.getSwitchTime());
     }
     /**
-     * Add a {@code SmartDevice}'s id to nonOperation list to last index.
+     * Add a {@code SmartDevice}'s id to the end of devices that do not have any operation.
      * @param device A {@code SmartDevice} that will add.
      * @see SmartDevice
-     * @see DeviceLogger#nonOperation
+     * @see DeviceOrderIndex#NON_OPERATION
      */
     public static void addNonOperation(SmartDevice device){
-        delete(device.getId());
-        nonOperation.add(device.getId());
-        deviceMap.put(device.getId(), nonOperation);
+        House.current().deviceOrder.addLast(device.getId(), DeviceOrderIndex.NON_OPERATION, 0);
     }
 
     /**
-     * Deletes a {@code SmartDevice}'s id in true list and {@code deviceMap} .
+     * Deletes a {@code SmartDevice}'s id from the order.
      * @param id : {@code SmartDevice}'s id.
      * @see SmartDevice
-     * @see DeviceLogger#deviceMap
+     * @see House#deviceOrder
      */
     protected static void delete(Integer id){
-        ArrayList<Integer> list = deviceMap.get(id);
-        if(!Validations.isNull(list)){
-            list.remove(id);
-        }
-    }
-
-    /**
-     * Finds the true index of {@code SmartDevice}'s id in deviceIDs list.
-     * @param deviceIDs {@code SmartDevice}'s ids list ({@code ArrayList<Integer>}).
-     * @param device A {@code SmartDevice}.
-     * @return true index value for device id.
-     * @see SmartDevice
-     * @see Utilities#getDeviceIndexBySwitchTime(ArrayList, SmartDevice)
-     */
-    private static int trueDeviceIndex(ArrayList<Integer> deviceIDs, SmartDevice device) {
-        ArrayList<SmartDevice> devices = getDevicesByIDs(deviceIDs);
-        return Utilities.getDeviceIndexBySwitchTime(devices,device);
-    }
-
-    /**
-     * Get {@code SmartDevice}s from deviceIDs.
-     * @param deviceIDs {@code SmartDevice}'s ids list ({@code ArrayList<Integer>}).
-     * @return An {@code ArrayList<SmartDevice>} contains {@code SmartDevice}s.
-     * @see SmartDevice
-     */
-    private static ArrayList<SmartDevice> getDevicesByIDs(ArrayList<Integer> deviceIDs){
-        ArrayList<SmartDevice> devices  = new ArrayList<>();
-        for(Integer deviceID: deviceIDs){
-            SmartDevice device = SmartDevice.getDeviceById(deviceID);
-            devices.add(device);
-        }
-        return devices;
+        House.current().deviceOrder.remove(id);
     }
 }
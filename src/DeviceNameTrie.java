@@ -0,0 +1,165 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * <p>
+ *   The {@code DeviceNameTrie} class keeps the {@code SmartDevice}s of a house in a trie of their names,
+ *   so the devices whose names start with a prefix are found without checking the other names.
+ * </p>
+ * Each node keeps its children in arrays that are sorted by their characters, so the devices are found
+ * in order of their names. Each node also keeps the number of the devices in its subtree,
+ * and the nodes that do not have any device are removed.
+ * @see DeviceRegistry
+ * @see SmartDeviceController#executeForTargets(Command, java.util.ArrayList)
+ */
+public class DeviceNameTrie {
+    /**
+     * The {@code Node} class is a character of the names in the trie.
+     */
+    private static final class Node {
+        /**
+         * Characters of the children in ascending order.
+         */
+        char[] keys = new char[0];
+        /**
+         * The children according to {@link Node#keys}.
+         */
+        Node[] children = new Node[0];
+        /**
+         * The device whose name ends at the node, or null.
+         */
+        SmartDevice device;
+        /**
+         * Number of the devices in the subtree of the node.
+         */
+        int count;
+
+        /**
+         * Finds the child of a character.
+         * @param key A {@code char}.
+         * @return A {@code Node}, or null if there is not a child of the character.
+         */
+        Node child(char key){
+            int index = Arrays.binarySearch(keys, key);
+            return index < 0 ? null : children[index];
+        }
+
+        /**
+         * Finds the child of a character and creates it if there is not.
+         * @param key A {@code char}.
+         * @return A {@code Node}.
+         */
+        Node getOrAddChild(char key){
+            int index = Arrays.binarySearch(keys, key);
+            if (index >= 0){
+                return children[index];
+            }
+            index = -index - 1;
+            int length = keys.length;
+            char[] newKeys = new char[length + 1];
+            Node[] newChildren = new Node[length + 1];
+            System.arraycopy(keys, 0, newKeys, 0, index);
+            System.arraycopy(children, 0, newChildren, 0, index);
+            System.arraycopy(keys, index, newKeys, index + 1, length - index);
+            System.arraycopy(children, index, newChildren, index + 1, length - index);
+            newKeys[index] = key;
+            newChildren[index] = new Node();
+            keys = newKeys;
+            children = newChildren;
+            return newChildren[index];
+        }
+
+        /**
+         * Removes the child of a character.
+         * @param key A {@code char} that has a child.
+         */
+        void removeChild(char key){
+            int index = Arrays.binarySearch(keys, key);
+            int length = keys.length;
+            char[] newKeys = new char[length - 1];
+            Node[] newChildren = new Node[length - 1];
+            System.arraycopy(keys, 0, newKeys, 0, index);
+            System.arraycopy(children, 0, newChildren, 0, index);
+            System.arraycopy(keys, index + 1, newKeys, index, length - index - 1);
+            System.arraycopy(children, index + 1, newChildren, index, length - index - 1);
+            keys = newKeys;
+            children = newChildren;
+        }
+    }
+
+    /**
+     * The root of the trie. It represents the empty prefix.
+     */
+    private final Node root = new Node();
+
+    /**
+     * Adds a device with its name.
+     * <br> The name must not be in the trie.
+     * @param name A {@code String} that is the name of the device.
+     * @param device A {@code SmartDevice}.
+     */
+    public void put(String name, SmartDevice device){
+        Node node = root;
+        node.count++;
+        for (int i = 0; i < name.length(); i++){
+            node = node.getOrAddChild(name.charAt(i));
+            node.count++;
+        }
+        node.device = device;
+    }
+
+    /**
+     * Removes a name and its device from the trie if the name is in the trie.
+     * @param name A {@code String} that is the name of the device.
+     */
+    public void remove(String name){
+        Node node = root;
+        for (int i = 0; i < name.length() && node != null; i++){
+            node = node.child(name.charAt(i));
+        }
+        if (node == null || node.device == null){
+            return;
+        }
+        node.device = null;
+        node = root;
+        node.count--;
+        for (int i = 0; i < name.length(); i++){
+            Node child = node.child(name.charAt(i));
+            if (--child.count == 0){
+                node.removeChild(name.charAt(i));
+                return;
+            }
+            node = child;
+        }
+    }
+
+    /**
+     * Finds the devices whose names start with a prefix in order of their names.
+     * @param prefix A {@code String}. All devices are found for the empty prefix.
+     * @param devices An {@code ArrayList<SmartDevice>} that the devices are added to.
+     */
+    public void findByPrefix(String prefix, ArrayList<SmartDevice> devices){
+        Node node = root;
+        for (int i = 0; i < prefix.length() && node != null; i++){
+            node = node.child(prefix.charAt(i));
+        }
+        if (node != null){
+            devices.ensureCapacity(devices.size() + node.count);
+            collect(node, devices);
+        }
+    }
+
+    /**
+     * Adds the devices of a subtree in order of their names.
+     * @param node A {@code Node} that is the root of the subtree.
+     * @param devices An {@code ArrayList<SmartDevice>} that the devices are added to.
+     */
+    private static void collect(Node node, ArrayList<SmartDevice> devices){
+        if (node.device != null){
+            devices.add(node.device);
+        }
+        for (Node child : node.children){
+            collect(child, devices);
+        }
+    }
+}
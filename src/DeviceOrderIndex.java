@@ -0,0 +1,339 @@
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * <p>
+ *   The {@code DeviceOrderIndex} class keeps the report order of the {@code SmartDevice}s of a house in a treap,
+ *   a binary search tree that is balanced with random priorities.
+ * </p>
+ * <p>
+ *   Each device is ordered by its category, a primary value such as its switch time and a sequence number.
+ *   The sequence number is given when the device is added, so devices that have the same category and primary value
+ *   are kept in the order that they are added to the end or to the start.
+ *   Each node keeps the size of its subtree, so the rank of a device is found without traversing the devices before it.
+ * </p>
+ * Adding and removing a device and finding its rank take {@code O(log n)} expected time,
+ * and all ids are taken in order in {@code O(n)} time.
+ * @see DeviceLogger
+ * @see House#deviceOrder
+ */
+public class DeviceOrderIndex {
+    /**
+     * The category of the devices that have a switch time workload that is not executed yet.
+     * They are ordered by their switch times.
+     */
+    public static final int NON_EXECUTED = 0;
+    /**
+     * The category of the devices that their switch time workloads are executed.
+     */
+    public static final int EXECUTED = 1;
+    /**
+     * The category of the devices that do not have any workload.
+     */
+    public static final int NON_OPERATION = 2;
+
+    /**
+     * The {@code Node} class keeps a device and its order in the tree.
+     */
+    private static final class Node {
+        /**
+         * The id of the device.
+         */
+        final int deviceId;
+        /**
+         * The category of the device.
+         */
+        final int category;
+        /**
+         * The primary value of the order in the category.
+         */
+        final long primary;
+        /**
+         * The sequence number that orders the nodes that have the same category and primary value.
+         */
+        final long sequence;
+        /**
+         * The random priority of the node. A parent has a greater priority than its children.
+         */
+        final int priority;
+        /**
+         * Number of the nodes in the subtree of the node.
+         */
+        int size = 1;
+        /**
+         * The child that has the nodes before the node.
+         */
+        Node left;
+        /**
+         * The child that has the nodes after the node.
+         */
+        Node right;
+
+        /**
+         * Creates a {@code Node}.
+         * @param deviceId An {@code int} that is the id of the device.
+         * @param category An {@code int} that is the category of the device.
+         * @param primary A {@code long} that is the primary value of the order.
+         * @param sequence A {@code long} that is the sequence number of the order.
+         * @param priority An {@code int} that is the random priority.
+         */
+        Node(int deviceId, int category, long primary, long sequence, int priority){
+            this.deviceId = deviceId;
+            this.category = category;
+            this.primary = primary;
+            this.sequence = sequence;
+            this.priority = priority;
+        }
+    }
+
+    /**
+     * The root of the tree.
+     */
+    private Node root = null;
+    /**
+     * Nodes of the devices according to their ids. It is null if the device is not in the index.
+     */
+    private Node[] nodes = new Node[16];
+    /**
+     * The last sequence number that is given to a device added to the end.
+     */
+    private long lastSequence = 0;
+    /**
+     * The last sequence number that is given to a device added to the start.
+     */
+    private long firstSequence = 0;
+    /**
+     * State of the random number generator of the priorities.
+     */
+    private int seed = 0x2545F491;
+    /**
+     * The nodes before the key after {@link DeviceOrderIndex#split(Node, Node, boolean)}.
+     */
+    private Node splitLeft;
+    /**
+     * The nodes after the key after {@link DeviceOrderIndex#split(Node, Node, boolean)}.
+     */
+    private Node splitRight;
+
+    /**
+     * Adds a device after the devices that have the same category and primary value.
+     * <br> If the device is already in the index, it is moved.
+     * @param deviceId An {@code int} that is the id of the device.
+     * @param category An {@code int} that is the category of the device.
+     * @param primary A {@code long} that is the primary value of the order, such as the switch time.
+     */
+    public void addLast(int deviceId, int category, long primary){
+        insert(deviceId, category, primary, ++lastSequence);
+    }
+
+    /**
+     * Adds a device before the devices that have the same category and primary value.
+     * <br> If the device is already in the index, it is moved.
+     * @param deviceId An {@code int} that is the id of the device.
+     * @param category An {@code int} that is the category of the device.
+     * @param primary A {@code long} that is the primary value of the order.
+     */
+    public void addFirst(int deviceId, int category, long primary){
+        insert(deviceId, category, primary, --firstSequence);
+    }
+
+    /**
+     * Removes a device from the index if it is in the index.
+     * @param deviceId An {@code int} that is the id of the device.
+     * @return If the device is removed, returns true.
+     */
+    public boolean remove(int deviceId){
+        Node node = getNode(deviceId);
+        if (node == null){
+            return false;
+        }
+        split(root, node, false);
+        Node before = splitLeft;
+        split(splitRight, node, true);
+        root = merge(before, splitRight);
+        nodes[deviceId] = null;
+        return true;
+    }
+
+    /**
+     * Gets the position of a device in the report order.
+     * @param deviceId An {@code int} that is the id of the device.
+     * @return An {@code int} that is the number of the devices before it, or -1 if the device is not in the index.
+     */
+    public int rank(int deviceId){
+        Node node = getNode(deviceId);
+        if (node == null){
+            return -1;
+        }
+        int rank = 0;
+        Node current = root;
+        while (current != node){
+            if (compare(node, current) < 0){
+                current = current.left;
+            } else {
+                rank += size(current.left) + 1;
+                current = current.right;
+            }
+        }
+        return rank + size(node.left);
+    }
+
+    /**
+     * Gets the ids of all devices in the report order.
+     * @return An {@code ArrayList<Integer>} that contains the ids.
+     */
+    public ArrayList<Integer> toList(){
+        ArrayList<Integer> deviceIds = new ArrayList<>(size(root));
+        ArrayDeque<Node> path = new ArrayDeque<>();
+        Node current = root;
+        while (current != null || !path.isEmpty()){
+            while (current != null){
+                path.push(current);
+                current = current.left;
+            }
+            current = path.pop();
+            deviceIds.add(current.deviceId);
+            current = current.right;
+        }
+        return deviceIds;
+    }
+
+    /**
+     * Gets the category of a device.
+     * @param deviceId An {@code int} that is the id of a device in the index.
+     * @return An {@code int} that is {@link DeviceOrderIndex#NON_EXECUTED}, {@link DeviceOrderIndex#EXECUTED}
+     * or {@link DeviceOrderIndex#NON_OPERATION}.
+     */
+    public int getCategory(int deviceId){
+        return nodes[deviceId].category;
+    }
+
+    /**
+     * Gets the primary value of the order of a device.
+     * @param deviceId An {@code int} that is the id of a device in the index.
+     * @return A {@code long}.
+     */
+    public long getPrimary(int deviceId){
+        return nodes[deviceId].primary;
+    }
+
+    /**
+     * Gets the number of the devices in the index.
+     * @return An {@code int}.
+     */
+    public int size(){
+        return size(root);
+    }
+
+    /**
+     * Adds a device with a sequence number after removing its old node.
+     * @param deviceId An {@code int} that is the id of the device.
+     * @param category An {@code int} that is the category of the device.
+     * @param primary A {@code long} that is the primary value of the order.
+     * @param sequence A {@code long} that is the sequence number of the order.
+     */
+    private void insert(int deviceId, int category, long primary, long sequence){
+        remove(deviceId);
+        seed ^= seed << 13;
+        seed ^= seed >>> 17;
+        seed ^= seed << 5;
+        Node node = new Node(deviceId, category, primary, sequence, seed);
+        split(root, node, false);
+        root = merge(merge(splitLeft, node), splitRight);
+        if (deviceId >= nodes.length){
+            nodes = Arrays.copyOf(nodes, Math.max(nodes.length * 2, deviceId + 1));
+        }
+        nodes[deviceId] = node;
+    }
+
+    /**
+     * Gets the node of a device.
+     * @param deviceId An {@code int} that is the id of the device.
+     * @return A {@code Node}, or null if the device is not in the index.
+     */
+    private Node getNode(int deviceId){
+        return deviceId >= 0 && deviceId < nodes.length ? nodes[deviceId] : null;
+    }
+
+    /**
+     * Splits a tree into the nodes before a key and the others.
+     * The results are kept in {@link DeviceOrderIndex#splitLeft} and {@link DeviceOrderIndex#splitRight}.
+     * @param tree A {@code Node} that is the root of the tree, or null.
+     * @param key A {@code Node} that is the key.
+     * @param inclusive If it is true, the key is added to the nodes before it.
+     */
+    private void split(Node tree, Node key, boolean inclusive){
+        if (tree == null){
+            splitLeft = null;
+            splitRight = null;
+            return;
+        }
+        int result = compare(tree, key);
+        if (result < 0 || (inclusive && result == 0)){
+            split(tree.right, key, inclusive);
+            tree.right = splitLeft;
+            update(tree);
+            splitLeft = tree;
+        } else {
+            split(tree.left, key, inclusive);
+            tree.left = splitRight;
+            update(tree);
+            splitRight = tree;
+        }
+    }
+
+    /**
+     * Merges two trees. All nodes of the first tree must be before the nodes of the second tree.
+     * @param first A {@code Node} that is the root of the first tree, or null.
+     * @param second A {@code Node} that is the root of the second tree, or null.
+     * @return A {@code Node} that is the root of the merged tree, or null.
+     */
+    private Node merge(Node first, Node second){
+        if (first == null){
+            return second;
+        }
+        if (second == null){
+            return first;
+        }
+        if (first.priority > second.priority){
+            first.right = merge(first.right, second);
+            update(first);
+            return first;
+        }
+        second.left = merge(first, second.left);
+        update(second);
+        return second;
+    }
+
+    /**
+     * Orders two nodes by their categories, their primary values and then their sequence numbers.
+     * @param first A {@code Node}.
+     * @param second A {@code Node}.
+     * @return A negative number, zero or a positive number as the first node is before, same or after the second.
+     */
+    private static int compare(Node first, Node second){
+        int result = Integer.compare(first.category, second.category);
+        if (result == 0){
+            result = Long.compare(first.primary, second.primary);
+        }
+        return result != 0 ? result : Long.compare(first.sequence, second.sequence);
+    }
+
+    /**
+     * Calculates the size of a node from its children.
+     * @param node A {@code Node}.
+     */
+    private static void update(Node node){
+        node.size = size(node.left) + size(node.right) + 1;
+    }
+
+    /**
+     * Gets the size of a subtree.
+     * @param node A {@code Node} that is the root of the subtree, or null.
+     * @return An {@code int}.
+     */
+    private static int size(Node node){
+        return node == null ? 0 : node.size;
+    }
+}
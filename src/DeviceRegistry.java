@@ -0,0 +1,297 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * <p>
+ *   The {@code DeviceRegistry} class keeps the {@code SmartDevice}s of a house and finds them by their ids and names
+ *   without boxing or locking.
+ * </p>
+ * <p>
+ *   Devices are kept in a dense array of slots. The slot of a removed device is given to the next added device,
+ *   but ids are never reused, so a workload of a removed device does not find a new device.
+ *   The slot of each id is kept in an array that is indexed by ids.
+ * </p>
+ * Names are kept in an open addressing table with linear probing. The table keeps the hash of each name,
+ * so other names are skipped without comparing their characters. Finding a device by its name is one probe sequence.
+ * <br> The names are also kept in a {@code DeviceNameTrie} to find the devices with a prefix.
+ * @see SmartDevice
+ * @see DeviceNameTrie
+ * @see House#devices
+ */
+public class DeviceRegistry {
+    /**
+     * Represents no slot.
+     */
+    private static final int NONE = -1;
+    /**
+     * The marker of a name that is removed from the table. It is replaced by the next added name on its probe sequence.
+     */
+    private static final String REMOVED = new String("");
+
+    /**
+     * Devices according to their slots. It is null for a free slot.
+     */
+    private SmartDevice[] devices = new SmartDevice[16];
+    /**
+     * The next free slot of each free slot.
+     */
+    private int[] nextFreeSlots = new int[16];
+    /**
+     * Slots of the devices according to their ids. It is {@link DeviceRegistry#NONE} for a removed device.
+     */
+    private int[] slots = new int[16];
+    /**
+     * The first free slot.
+     */
+    private int freeSlot = NONE;
+    /**
+     * Number of the slots that have been used.
+     */
+    private int usedSlots = 0;
+    /**
+     * The id of the next device.
+     */
+    private int nextId = 0;
+    /**
+     * Number of the devices.
+     */
+    private int size = 0;
+
+    /**
+     * Names of the name table. It is null for an empty entry.
+     */
+    private String[] names = new String[32];
+    /**
+     * Hashes of the names of the name table.
+     */
+    private int[] hashes = new int[32];
+    /**
+     * Slots of the devices of the name table.
+     */
+    private int[] nameSlots = new int[32];
+    /**
+     * Number of the entries that are not empty, including the removed names.
+     */
+    private int usedEntries = 0;
+    /**
+     * The trie of the names of the devices.
+     */
+    private final DeviceNameTrie nameTrie = new DeviceNameTrie();
+
+    /**
+     * Adds a device with its name and gives it a new id.
+     * <br> The name must not be used by another device.
+     * @param device A {@code SmartDevice}.
+     * @param name A {@code String} that is the name of the device.
+     * @return An {@code int} that is the id of the device.
+     */
+    public int add(SmartDevice device, String name){
+        int slot;
+        if (freeSlot != NONE){
+            slot = freeSlot;
+            freeSlot = nextFreeSlots[slot];
+        } else {
+            if (usedSlots == devices.length){
+                devices = Arrays.copyOf(devices, usedSlots * 2);
+                nextFreeSlots = Arrays.copyOf(nextFreeSlots, usedSlots * 2);
+            }
+            slot = usedSlots++;
+        }
+        int id = nextId++;
+        if (id == slots.length){
+            slots = Arrays.copyOf(slots, id * 2);
+        }
+        slots[id] = slot;
+        devices[slot] = device;
+        putName(name, slot);
+        nameTrie.put(name, device);
+        size++;
+        return id;
+    }
+
+    /**
+     * Gets a device with its name.
+     * @param name A {@code String} that is the name of the device.
+     * @return A {@code SmartDevice}, or null if there is not a device with the name.
+     */
+    public SmartDevice get(String name){
+        int entry = findName(name);
+        return entry == NONE ? null : devices[nameSlots[entry]];
+    }
+
+    /**
+     * Gets a device with its id.
+     * @param id An {@code int} that is the id of the device.
+     * @return A {@code SmartDevice}, or null if there is not a device with the id.
+     */
+    public SmartDevice get(int id){
+        if (id < 0 || id >= nextId || slots[id] == NONE){
+            return null;
+        }
+        return devices[slots[id]];
+    }
+
+    /**
+     * Removes a device with its name. Its slot is given to the next added device.
+     * @param name A {@code String} that is the name of the device.
+     * @return A {@code SmartDevice} that is removed, or null if there is not a device with the name.
+     */
+    public SmartDevice remove(String name){
+        int entry = findName(name);
+        if (entry == NONE){
+            return null;
+        }
+        int slot = nameSlots[entry];
+        SmartDevice device = devices[slot];
+        names[entry] = REMOVED;
+        nameTrie.remove(name);
+        slots[device.getId()] = NONE;
+        devices[slot] = null;
+        nextFreeSlots[slot] = freeSlot;
+        freeSlot = slot;
+        size--;
+        return device;
+    }
+
+    /**
+     * Changes the name of a device in the name table.
+     * <br> The new name must not be used by another device.
+     * @param name A {@code String} that is the current name of the device.
+     * @param newName A {@code String} that is the new name of the device.
+     * @return A {@code SmartDevice} that is renamed, or null if there is not a device with the name.
+     */
+    public SmartDevice rename(String name, String newName){
+        int entry = findName(name);
+        if (entry == NONE){
+            return null;
+        }
+        int slot = nameSlots[entry];
+        names[entry] = REMOVED;
+        putName(newName, slot);
+        nameTrie.remove(name);
+        nameTrie.put(newName, devices[slot]);
+        return devices[slot];
+    }
+
+    /**
+     * Finds the devices whose names start with a prefix.
+     * @param prefix A {@code String}.
+     * @return An {@code ArrayList<SmartDevice>} that contains the devices in order of their names.
+     * @see DeviceNameTrie#findByPrefix(String, ArrayList)
+     */
+    public ArrayList<SmartDevice> findByPrefix(String prefix){
+        ArrayList<SmartDevice> prefixDevices = new ArrayList<>();
+        nameTrie.findByPrefix(prefix, prefixDevices);
+        return prefixDevices;
+    }
+
+    /**
+     * Gets the id of the next device.
+     * @return An {@code int}.
+     */
+    public int getNextId(){
+        return nextId;
+    }
+
+    /**
+     * Moves the id of the next device forward, so a device of a snapshot is added with its id.
+     * The ids that are skipped are kept as removed devices.
+     * @param nextId An {@code int} that is not less than the current id of the next device.
+     * @see HouseSnapshot
+     */
+    public void skipIds(int nextId){
+        if (nextId > slots.length){
+            slots = Arrays.copyOf(slots, Math.max(slots.length * 2, nextId));
+        }
+        Arrays.fill(slots, this.nextId, nextId, NONE);
+        this.nextId = nextId;
+    }
+
+    /**
+     * Gets the number of the devices.
+     * @return An {@code int}.
+     */
+    public int size(){
+        return size;
+    }
+
+    /**
+     * Finds the entry of a name in the name table.
+     * @param name A {@code String}.
+     * @return An {@code int} that is the index of the entry, or {@link DeviceRegistry#NONE} if the name is not in the table.
+     */
+    private int findName(String name){
+        int hash = hash(name);
+        int mask = names.length - 1;
+        for (int entry = hash & mask; names[entry] != null; entry = (entry + 1) & mask){
+            if (hashes[entry] == hash && names[entry] != REMOVED && names[entry].equals(name)){
+                return entry;
+            }
+        }
+        return NONE;
+    }
+
+    /**
+     * Adds a name to the name table. The first removed or empty entry of its probe sequence is used.
+     * @param name A {@code String} that is not in the table.
+     * @param slot An {@code int} that is the slot of the device.
+     */
+    private void putName(String name, int slot){
+        if ((usedEntries + 1) * 2 > names.length){
+            rehash();
+        }
+        int hash = hash(name);
+        int mask = names.length - 1;
+        int entry = hash & mask;
+        while (names[entry] != null && names[entry] != REMOVED){
+            entry = (entry + 1) & mask;
+        }
+        if (names[entry] == null){
+            usedEntries++;
+        }
+        names[entry] = name;
+        hashes[entry] = hash;
+        nameSlots[entry] = slot;
+    }
+
+    /**
+     * Creates the name table again without the removed names. The table is doubled if it is more than half full.
+     */
+    private void rehash(){
+        String[] oldNames = names;
+        int[] oldHashes = hashes;
+        int[] oldSlots = nameSlots;
+        int length = oldNames.length;
+        if ((size + 1) * 4 > length){
+            length *= 2;
+        }
+        names = new String[length];
+        hashes = new int[length];
+        nameSlots = new int[length];
+        usedEntries = 0;
+        int mask = length - 1;
+        for (int i = 0; i < oldNames.length; i++){
+            if (oldNames[i] == null || oldNames[i] == REMOVED){
+                continue;
+            }
+            int entry = oldHashes[i] & mask;
+            while (names[entry] != null){
+                entry = (entry + 1) & mask;
+            }
+            names[entry] = oldNames[i];
+            hashes[entry] = oldHashes[i];
+            nameSlots[entry] = oldSlots[i];
+            usedEntries++;
+        }
+    }
+
+    /**
+     * Calculates the hash of a name. The higher bits are mixed into the lower bits that select the entry.
+     * @param name A {@code String}.
+     * @return An {@code int}.
+     */
+    private static int hash(String name){
+        int hash = name.hashCode();
+        return hash ^ (hash >>> 16);
+    }
+}
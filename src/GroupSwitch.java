@@ -0,0 +1,83 @@
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * <p>
+ *   The {@code GroupSwitch} class is a scheduled switch of the members of a {@code DeviceGroup}.
+ *   It is scheduled as one workload, and all devices are switched when it is executed.
+ * </p>
+ * Each device is switched to the opposite of its status when the switch is scheduled,
+ * as if the devices are scheduled one by one. The switch time workload of each device is the shared workload,
+ * so a device leaves the group switch when it is scheduled again or removed, and the workload is removed with its last device.
+ * @see WorkloadStore#GROUP_SWITCH
+ * @see SmartDeviceController#setSwitchTime(java.util.ArrayList)
+ */
+public class GroupSwitch {
+    /**
+     * Ids of the devices in ascending order.
+     */
+    private final int[] deviceIds;
+    /**
+     * Indexes of the devices that left the switch.
+     */
+    private final BitSet left = new BitSet();
+    /**
+     * New statuses of the devices.
+     */
+    private final boolean[] statuses;
+    /**
+     * Number of the devices that did not leave the switch.
+     */
+    private int remaining;
+
+    /**
+     * Creates a {@code GroupSwitch}.
+     * @param deviceIds An {@code int[]} that contains the ids of the devices in ascending order.
+     * @param statuses A {@code boolean[]} that contains the new statuses of the devices.
+     */
+    public GroupSwitch(int[] deviceIds, boolean[] statuses){
+        this.deviceIds = deviceIds;
+        this.statuses = statuses;
+        this.remaining = deviceIds.length;
+    }
+
+    /**
+     * Removes a device from the switch.
+     * @param deviceId An {@code int} that is the id of the device.
+     * @return If there is not any device left, returns true.
+     */
+    public boolean leave(int deviceId){
+        int index = Arrays.binarySearch(deviceIds, deviceId);
+        if (index >= 0 && !left.get(index)){
+            left.set(index);
+            remaining--;
+        }
+        return remaining == 0;
+    }
+
+    /**
+     * Gets the number of the devices including the devices that left.
+     * @return An {@code int}.
+     */
+    public int size(){
+        return deviceIds.length;
+    }
+
+    /**
+     * Gets the id of a device.
+     * @param index An {@code int} that is the index of the device.
+     * @return An {@code int}, or {@link WorkloadStore#NONE} if the device left the switch.
+     */
+    public int getDeviceId(int index){
+        return left.get(index) ? WorkloadStore.NONE : deviceIds[index];
+    }
+
+    /**
+     * Gets the new status of a device.
+     * @param index An {@code int} that is the index of the device.
+     * @return A {@code boolean}.
+     */
+    public boolean getStatus(int index){
+        return statuses[index];
+    }
+}
@@ -0,0 +1,151 @@
+import java.util.Dictionary;
+import java.util.Hashtable;
+
+/**
+ * <p>
+ *   The {@code House} class keeps the whole state of a smart house: the time, devices, workloads and report orders.
+ *   So, independent houses can run in the same program without affecting each other.
+ * </p>
+ * The static methods of {@code SmartDeviceController}, {@code SmartDevice} and {@code DeviceLogger}
+ * work on the house that is bound to the current thread with {@link House#bind(House)}.
+ * If there is no bound house, they work on the default house.
+ * @see HouseRunner
+ */
+public class House {
+    /**
+     * The house that is used when there is no house bound to the thread.
+     */
+    private static final House defaultHouse = new House();
+    /**
+     * The house that is bound to each thread.
+     */
+    private static final ThreadLocal<House> boundHouse = new ThreadLocal<>();
+
+    /**
+     * A reference time for control devices as epoch milliseconds. It is {@link TimeFormat#NONE} before the initial time is set.
+     * @see SmartDeviceController#getTime()
+     */
+    long time = TimeFormat.NONE;
+    /**
+     * Contains workloads that will execute in order of their executing times.
+     * @see WorkloadScheduler
+     */
+    WorkloadScheduler scheduler;
+    /**
+     * The type of {@link House#scheduler}.
+     */
+    final WorkloadScheduler.Type schedulerType;
+    /**
+     * The clock that moves the time with the wall clock. It is null if the time moves only with the commands.
+     * @see RealTimeClock
+     */
+    RealTimeClock clock = null;
+    /**
+     * If it is true, large groups of switch workloads that have the same executing time are fired in parallel.
+     * @see ProgramOptions#parallelFiring
+     */
+    boolean parallelFiring = false;
+    /**
+     * The write-ahead journal of the actions. It is null if the actions are not journaled.
+     * @see CommandJournal
+     */
+    CommandJournal journal = null;
+
+    /**
+     * Contains all smart devices according to their ids and names.
+     * @see SmartDevice
+     */
+    DeviceRegistry devices = new DeviceRegistry();
+
+    /**
+     * Contains the values of the scheduled workloads.
+     * @see WorkloadStore
+     */
+    WorkloadStore workloads = new WorkloadStore();
+    /**
+     * Contains the scheduled actions that are not executed yet according to their ids.
+     * @see ScheduledAction
+     */
+    Dictionary<Long,ScheduledAction> scheduledActions = new Hashtable<>();
+    /**
+     * Contains the device groups according to their names.
+     * @see DeviceGroup
+     */
+    Dictionary<String,DeviceGroup> groups = new Hashtable<>();
+
+    /**
+     * Keeps the report order of the {@code SmartDevice}s.
+     * @see DeviceLogger
+     */
+    DeviceOrderIndex deviceOrder = new DeviceOrderIndex();
+
+    /**
+     * Creates an empty house with the sorted set scheduler.
+     * @see OrderedWorkloadScheduler
+     */
+    public House(){
+        this(WorkloadScheduler.Type.ORDERED);
+    }
+
+    /**
+     * Creates an empty house with a scheduler type.
+     * @param schedulerType A {@code WorkloadScheduler.Type} that is the scheduler of the workloads.
+     */
+    public House(WorkloadScheduler.Type schedulerType){
+        this.schedulerType = schedulerType;
+        this.scheduler = WorkloadScheduler.create(schedulerType, workloads);
+    }
+
+    /**
+     * Creates an empty house according to the program options.
+     * @param options A {@code ProgramOptions} that contains the scheduler type, the clock and the firing options.
+     */
+    public House(ProgramOptions options){
+        this(options.schedulerType);
+        this.parallelFiring = options.parallelFiring;
+        if (options.realTime){
+            this.clock = new RealTimeClock(this, options.clockSpeed);
+        }
+    }
+
+    /**
+     * Replaces the time, devices, workloads, groups and report order of the house with the ones of another house.
+     * The clock, the journal and the options of the house are kept.
+     * @param state A {@code House} that has the same scheduler type. It must not be used after it.
+     * @see HouseSnapshot#restore(House, java.nio.file.Path)
+     */
+    void replaceState(House state){
+        this.time = state.time;
+        this.scheduler = state.scheduler;
+        this.devices = state.devices;
+        this.workloads = state.workloads;
+        this.scheduledActions = state.scheduledActions;
+        this.groups = state.groups;
+        this.deviceOrder = state.deviceOrder;
+    }
+
+    /**
+     * Gets the house of the current thread.
+     * @return The {@code House} that is bound to the current thread, or the default house if there is not.
+     */
+    public static House current(){
+        House house = boundHouse.get();
+        return house == null ? defaultHouse : house;
+    }
+
+    /**
+     * Binds a house to the current thread. All device commands on this thread work on this house until it is unbound.
+     * @param house A {@code House}. If it is null, the default house is used.
+     * @see House#unbind()
+     */
+    public static void bind(House house){
+        boundHouse.set(house);
+    }
+
+    /**
+     * Removes the house that is bound to the current thread.
+     */
+    public static void unbind(){
+        boundHouse.remove();
+    }
+}
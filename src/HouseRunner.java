@@ -0,0 +1,113 @@
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * <p>
+ *   The {@code HouseRunner} class executes the command files of many independent houses at the same time
+ *   on a pool of worker threads. Each house has its own {@code House} state.
+ * </p>
+ * The houses are listed in a manifest file. Each line of the manifest contains an input file path and
+ * an output file path separated with a {@code \t} character.
+ * <br> Usage: {@code java HouseRunner manifest.txt [--threads=N] [--flush=...]}
+ * @see House
+ * @see Main
+ */
+public class HouseRunner {
+    /**
+     * Pool of the worker threads that execute the houses.
+     */
+    private final ExecutorService workers;
+    /**
+     * Options of the program for each house.
+     */
+    private final ProgramOptions options;
+    /**
+     * Results of the houses that submitted.
+     */
+    private final List<Future<?>> results = new ArrayList<>();
+
+    /**
+     * Creates a {@code HouseRunner} with options.
+     * @param options A {@code ProgramOptions} that is used for each house.
+     * @throws IllegalArgumentException If the options have a journal, because a journal keeps only one house.
+     */
+    public HouseRunner(ProgramOptions options){
+        if (options.journalPath != null){
+            throw new IllegalArgumentException("Journal can not be used with more than one house");
+        }
+        this.options = options;
+        this.workers = Executors.newFixedThreadPool(options.threads);
+    }
+
+    /**
+     * Takes a manifest file and executes all houses in it.
+     * @param args console arguments. The first argument is the manifest file path and the others are options.
+     * @throws IOException If the manifest file cannot be read.
+     */
+    public static void main(String[] args) throws IOException {
+        ProgramOptions options = new ProgramOptions(args, 1);
+        HouseRunner runner = new HouseRunner(options);
+        for (String line : Files.readAllLines(Paths.get(args[0]))){
+            if (Validations.isEmptyCommand(line)){
+                continue;
+            }
+            String[] paths = line.split("\t");
+            runner.submit(paths[0], paths[1]);
+        }
+        runner.awaitAll();
+    }
+
+    /**
+     * Submits a house to the worker pool.
+     * @param inputPath A {@code String} that is the input file path of the house.
+     * @param outputPath A {@code String} that is the output file path of the house.
+     */
+    public void submit(String inputPath, String outputPath){
+        results.add(workers.submit(() -> runHouse(inputPath, outputPath)));
+    }
+
+    /**
+     * Waits until all submitted houses finish and stops the worker pool.
+     * If a house fails, its error is printed and the other houses continue.
+     */
+    public void awaitAll(){
+        for (Future<?> result : results){
+            try {
+                result.get();
+            } catch (InterruptedException e){
+                Thread.currentThread().interrupt();
+                break;
+            } catch (ExecutionException e){
+                e.getCause().printStackTrace();
+            }
+        }
+        workers.shutdown();
+    }
+
+    /**
+     * Executes a house from its input file on the current thread with a new {@code House}.
+     * <br> If the options select the pipeline mode, the parsing and writing stages of the house run on their own threads.
+     * @param inputPath A {@code String} that is the input file path of the house.
+     * @param outputPath A {@code String} that is the output file path of the house.
+     */
+    private void runHouse(String inputPath, String outputPath){
+        House.bind(new House(options));
+        try (OutputIO outputFile = new OutputIO(outputPath, options)){
+            InputIO inputFile = new InputIO(inputPath, options.parallelParse);
+            if (options.pipeline){
+                Pipeline.run(inputFile, outputFile);
+            }else{
+                Main.run(inputFile, outputFile);
+            }
+        } finally {
+            House.unbind();
+        }
+    }
+}
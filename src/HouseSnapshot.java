@@ -0,0 +1,634 @@
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Dictionary;
+import java.util.Enumeration;
+import java.util.HashMap;
+
+/**
+ * <p>
+ *   The {@code HouseSnapshot} class writes the whole state of a {@code House} to a binary snapshot file
+ *   and restores a house from it.
+ * </p>
+ * <p>
+ *   A snapshot starts with {@link HouseSnapshot#MAGIC} and {@link HouseSnapshot#VERSION}. Then it contains:
+ *   <br> -The time of the house, the id of the next device and the id of the next workload.
+ *   <br> -The devices in order of their ids with their types, ids, names and properties.
+ *   <br> -The workloads with their handles, ids and values, and the routines, scheduled actions and group switches of them.
+ *   <br> -The report order of the devices with their categories and primary values.
+ *   <br> -The device groups with their members.
+ * </p>
+ * Workloads keep their handles and ids, so the switch times of the devices, the ids of the scheduled actions
+ * and the order of the workloads that have the same executing time are the same after the house is restored.
+ * <br> A snapshot is written to a temporary file with one channel write and moved over the old snapshot,
+ * and it is read with one sequential read before any value of the house is changed.
+ * <br> The checkpoints of a {@code CommandJournal} are also snapshots.
+ * @see SmartDeviceController#snapshot(ArrayList)
+ * @see SmartDeviceController#restore(ArrayList)
+ * @see CommandJournal
+ */
+public class HouseSnapshot {
+    /**
+     * The first bytes of a snapshot. The first byte can not be the first byte of a UTF-8 text.
+     */
+    static final byte[] MAGIC = {(byte) 0x89, 'S', 'H', 'S'};
+    /**
+     * The version of the format. The ids of the workloads are {@code long} since the second version.
+     */
+    static final byte VERSION = 2;
+    /**
+     * The first version that can still be read. Its ids of the workloads are {@code int}.
+     */
+    private static final byte FIRST_VERSION = 1;
+    /**
+     * Device types according to their type numbers in a snapshot.
+     */
+    private static final Class<?>[] DEVICE_TYPES = {SmartLamp.class, SmartColorLamp.class, SmartPlug.class, SmartCamera.class};
+    /**
+     * Type numbers of the devices according to their classes.
+     */
+    private static final HashMap<Class<?>, Integer> typeNumbers = new HashMap<>();
+
+    static {
+        for (int type = 0; type < DEVICE_TYPES.length; type++){
+            typeNumbers.put(DEVICE_TYPES[type], type);
+        }
+    }
+    /**
+     * Commands according to their ordinals.
+     */
+    private static final Command[] COMMANDS = Command.values();
+    /**
+     * The length of a string that is null.
+     */
+    private static final int NULL_LENGTH = -1;
+
+    /**
+     * The bytes of the snapshot.
+     */
+    private ByteBuffer buffer;
+    /**
+     * The version of the snapshot that is read.
+     */
+    private byte version = VERSION;
+
+    /**
+     * Creates a {@code HouseSnapshot} on a buffer.
+     * @param buffer A {@code ByteBuffer} that is written or read.
+     */
+    private HouseSnapshot(ByteBuffer buffer){
+        this.buffer = buffer;
+    }
+
+    /**
+     * Writes the state of a house to a snapshot file. The old file is replaced only after the new one is written.
+     * @param house A {@code House}.
+     * @param path A {@code Path} that is the snapshot file.
+     * @return An {@code int} that is the size of the snapshot as bytes.
+     * @throws IOException If the file cannot be written.
+     */
+    public static int write(House house, Path path) throws IOException {
+        ByteBuffer buffer = encode(house);
+        int size = buffer.remaining();
+        writeFile(path, buffer);
+        return size;
+    }
+
+    /**
+     * Restores the state of a house from a snapshot file.
+     * @param house A {@code House} that is restored.
+     * @param path A {@code Path} that is the snapshot file.
+     * @return An {@code int} that is the number of the restored devices.
+     * @throws IOException If the file cannot be read or it is not a valid snapshot.
+     * @see HouseSnapshot#decode(House, ByteBuffer)
+     */
+    public static int restore(House house, Path path) throws IOException {
+        return decode(house, readFile(path));
+    }
+
+    /**
+     * Writes the state of a house to a buffer.
+     * @param house A {@code House}.
+     * @return A {@code ByteBuffer} that is ready to be read from its start.
+     */
+    static ByteBuffer encode(House house){
+        HouseSnapshot snapshot = new HouseSnapshot(ByteBuffer.allocate(1 << 16));
+        snapshot.writeHouse(house);
+        snapshot.buffer.flip();
+        return snapshot.buffer;
+    }
+
+    /**
+     * Restores the state of a house from the rest of a buffer.
+     * <br> The state is built in a new house, so the house is not changed if the snapshot cannot be read.
+     * The clock and the options of the house are kept.
+     * @param house A {@code House} that is restored.
+     * @param buffer A {@code ByteBuffer} that is positioned at the start of the snapshot.
+     * @return An {@code int} that is the number of the restored devices.
+     * @throws IOException If the buffer is not a valid snapshot.
+     * @see House#replaceState(House)
+     */
+    static int decode(House house, ByteBuffer buffer) throws IOException {
+        House state = new House(house.schedulerType);
+        House previous = House.current();
+        House.bind(state);
+        try {
+            new HouseSnapshot(buffer).readHouse(state);
+        } catch (BufferUnderflowException | IllegalArgumentException | IndexOutOfBoundsException | NegativeArraySizeException e){
+            throw new IOException("Broken snapshot", e);
+        } finally {
+            House.bind(previous);
+        }
+        house.replaceState(state);
+        return state.devices.size();
+    }
+
+    /**
+     * Writes buffers to a temporary file with one gathering channel write, forces them to the disk
+     * and moves the file over a path.
+     * @param path A {@code Path} that is the file.
+     * @param buffers {@code ByteBuffer}s that are written in order.
+     * @throws IOException If the file cannot be written.
+     */
+    static void writeFile(Path path, ByteBuffer... buffers) throws IOException {
+        Path temporaryPath = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporaryPath,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)){
+            while (buffers[buffers.length - 1].hasRemaining()){
+                channel.write(buffers);
+            }
+            channel.force(true);
+        }
+        Files.move(temporaryPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Reads a whole file with one sequential read.
+     * @param path A {@code Path} that is the file.
+     * @return A {@code ByteBuffer} that is ready to be read from its start.
+     * @throws IOException If the file cannot be read.
+     */
+    static ByteBuffer readFile(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)){
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE){
+                throw new IOException("File is too large: " + path);
+            }
+            ByteBuffer buffer = ByteBuffer.allocate((int) size);
+            while (buffer.hasRemaining() && channel.read(buffer) >= 0){
+                // Reads until the buffer is full.
+            }
+            buffer.flip();
+            return buffer;
+        }
+    }
+
+    /**
+     * Writes all parts of a house.
+     * @param house A {@code House}.
+     */
+    private void writeHouse(House house){
+        ensure(MAGIC.length + 1);
+        buffer.put(MAGIC);
+        buffer.put(VERSION);
+        putLong(house.time);
+        putInt(house.devices.getNextId());
+        putLong(house.workloads.getIdCounter());
+        writeDevices(house.devices);
+        writeWorkloads(house.workloads);
+        writeDeviceOrder(house.deviceOrder);
+        writeGroups(house.groups);
+    }
+
+    /**
+     * Reads all parts of a house in the order of {@link HouseSnapshot#writeHouse(House)}.
+     * @param house A {@code House} that is empty and bound to the current thread.
+     * @throws IOException If the snapshot is not valid.
+     */
+    private void readHouse(House house) throws IOException {
+        byte[] magic = new byte[MAGIC.length];
+        buffer.get(magic);
+        if (!Arrays.equals(magic, MAGIC)){
+            throw new IOException("Not a snapshot");
+        }
+        version = buffer.get();
+        if (version < FIRST_VERSION || version > VERSION){
+            throw new IOException("Unsupported snapshot version: " + version);
+        }
+        house.time = getLong();
+        int nextDeviceId = getInt();
+        long workloadIdCounter = getWorkloadId();
+        readDevices(house.devices, nextDeviceId);
+        readWorkloads(house, workloadIdCounter);
+        readDeviceOrder(house);
+        readGroups(house.groups);
+        if (buffer.hasRemaining()){
+            throw new IOException("Unexpected bytes at the end of the snapshot");
+        }
+    }
+
+    /**
+     * Writes the devices in order of their ids.
+     * @param devices A {@code DeviceRegistry}.
+     */
+    private void writeDevices(DeviceRegistry devices){
+        putInt(devices.size());
+        for (int id = 0; id < devices.getNextId(); id++){
+            SmartDevice device = devices.get(id);
+            if (Validations.isNull(device)){
+                continue;
+            }
+            putInt(typeNumbers.get(device.getCls()));
+            putInt(id);
+            putString(device.name);
+            device.writeState(this);
+        }
+    }
+
+    /**
+     * Reads the devices and adds them with their ids.
+     * @param devices A {@code DeviceRegistry} that is empty.
+     * @param nextId An {@code int} that is the id of the next device.
+     * @throws IOException If a device is not valid.
+     */
+    private void readDevices(DeviceRegistry devices, int nextId) throws IOException {
+        int count = getInt();
+        for (int i = 0; i < count; i++){
+            int type = getInt();
+            int id = getInt();
+            String name = getString();
+            if (id < devices.getNextId() || id >= nextId || Validations.isNull(name) || !Validations.isNull(devices.get(name))){
+                throw new IOException("Invalid device: " + name);
+            }
+            devices.skipIds(id);
+            createDevice(type, name).readState(this);
+        }
+        devices.skipIds(nextId);
+    }
+
+    /**
+     * Creates a device of a type with default properties. The properties are read after it.
+     * @param type An {@code int} that is the index of the type in {@link HouseSnapshot#DEVICE_TYPES}.
+     * @param name A {@code String} that is the name of the device.
+     * @return A {@code SmartDevice} that is added to the current house.
+     * @throws IOException If the type is not valid.
+     */
+    private static SmartDevice createDevice(int type, String name) throws IOException {
+        switch (type){
+            case 0:
+                return new SmartLamp(name, SmartLamp.class, false);
+            case 1:
+                return new SmartColorLamp(name, false, 4000, 100);
+            case 2:
+                return new SmartPlug(name, false, 0f);
+            case 3:
+                return new SmartCamera(name, 0, false);
+            default:
+                throw new IOException("Unknown device type: " + type);
+        }
+    }
+
+    /**
+     * Writes the workloads in order of their handles with their payloads.
+     * Only the devices that have not left a group switch are written.
+     * @param workloads A {@code WorkloadStore}.
+     */
+    private void writeWorkloads(WorkloadStore workloads){
+        putInt(workloads.getUsedHandles());
+        putInt(workloads.size());
+        for (int handle = 0; handle < workloads.getUsedHandles(); handle++){
+            byte opcode = workloads.getOpcode(handle);
+            if (opcode == WorkloadStore.FREE){
+                continue;
+            }
+            putInt(handle);
+            putLong(workloads.getTime(handle));
+            putLong(workloads.getId(handle));
+            putInt(workloads.getDeviceId(handle));
+            ensure(1);
+            buffer.put(opcode);
+            putLong(workloads.getArgument(handle));
+            Object payload = workloads.getPayload(handle);
+            if (opcode == WorkloadStore.ROUTINE){
+                putInt(((Routine) payload).periodMinutes);
+            } else if (opcode == WorkloadStore.ACTION){
+                ScheduledAction action = (ScheduledAction) payload;
+                putInt(action.command.ordinal());
+                putInt(action.arguments.size());
+                for (String argument: action.arguments){
+                    putString(argument);
+                }
+            } else if (opcode == WorkloadStore.GROUP_SWITCH){
+                GroupSwitch groupSwitch = (GroupSwitch) payload;
+                int count = 0;
+                for (int i = 0; i < groupSwitch.size(); i++){
+                    if (groupSwitch.getDeviceId(i) != WorkloadStore.NONE){
+                        count++;
+                    }
+                }
+                putInt(count);
+                for (int i = 0; i < groupSwitch.size(); i++){
+                    if (groupSwitch.getDeviceId(i) != WorkloadStore.NONE){
+                        putInt(groupSwitch.getDeviceId(i));
+                        putBoolean(groupSwitch.getStatus(i));
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Reads the workloads to their handles, creates their payloads and schedules them.
+     * @param house A {@code House} that has the devices of the snapshot.
+     * @param idCounter A {@code long} that is the id of the next workload.
+     * @throws IOException If a workload is not valid.
+     */
+    private void readWorkloads(House house, long idCounter) throws IOException {
+        WorkloadStore workloads = house.workloads;
+        int usedHandles = getInt();
+        int count = getInt();
+        int previousHandle = -1;
+        for (int i = 0; i < count; i++){
+            int handle = getInt();
+            if (handle <= previousHandle || handle >= usedHandles){
+                throw new IOException("Invalid workload handle: " + handle);
+            }
+            previousHandle = handle;
+            long time = getLong();
+            long id = getWorkloadId();
+            int deviceId = getInt();
+            byte opcode = buffer.get();
+            long argument = getLong();
+            SmartDevice device = house.devices.get(deviceId);
+            Object payload = null;
+            if (opcode == WorkloadStore.ROUTINE){
+                Routine routine = new Routine(handle, checkDevice(device), getInt(), argument != 0);
+                device.routines.add(routine);
+                payload = routine;
+            } else if (opcode == WorkloadStore.ACTION){
+                Command command = COMMANDS[getInt()];
+                int argumentCount = getInt();
+                ArrayList<String> arguments = new ArrayList<>(argumentCount);
+                for (int j = 0; j < argumentCount; j++){
+                    arguments.add(getString());
+                }
+                ScheduledAction action = new ScheduledAction(handle, id, time, command, arguments);
+                checkDevice(device).addScheduledAction(action);
+                payload = action;
+            } else if (opcode == WorkloadStore.GROUP_SWITCH){
+                int memberCount = getInt();
+                int[] deviceIds = new int[memberCount];
+                boolean[] statuses = new boolean[memberCount];
+                for (int j = 0; j < memberCount; j++){
+                    deviceIds[j] = getInt();
+                    statuses[j] = getBoolean();
+                }
+                payload = new GroupSwitch(deviceIds, statuses);
+            } else if (opcode != WorkloadStore.SWITCH){
+                throw new IOException("Unknown workload opcode: " + opcode);
+            }
+            workloads.restore(handle, time, id, deviceId, opcode, argument, payload);
+        }
+        workloads.restoreCounters(usedHandles, idCounter);
+        for (int handle = 0; handle < usedHandles; handle++){
+            if (workloads.getOpcode(handle) != WorkloadStore.FREE){
+                house.scheduler.add(handle);
+            }
+        }
+    }
+
+    /**
+     * Checks the device of a workload or a report order entry is restored.
+     * @param device A {@code SmartDevice}, or null.
+     * @return The {@code SmartDevice}.
+     * @throws IOException If the device is null.
+     */
+    private static SmartDevice checkDevice(SmartDevice device) throws IOException {
+        if (Validations.isNull(device)){
+            throw new IOException("Workload of a missing device");
+        }
+        return device;
+    }
+
+    /**
+     * Writes the report order of the devices.
+     * @param deviceOrder A {@code DeviceOrderIndex}.
+     */
+    private void writeDeviceOrder(DeviceOrderIndex deviceOrder){
+        ArrayList<Integer> deviceIds = deviceOrder.toList();
+        putInt(deviceIds.size());
+        for (int deviceId: deviceIds){
+            putInt(deviceId);
+            putInt(deviceOrder.getCategory(deviceId));
+            putLong(deviceOrder.getPrimary(deviceId));
+        }
+    }
+
+    /**
+     * Reads the report order of the devices. The devices are added to the end in the same order.
+     * @param house A {@code House} that has the devices of the snapshot.
+     * @throws IOException If a device is not restored.
+     */
+    private void readDeviceOrder(House house) throws IOException {
+        DeviceOrderIndex deviceOrder = house.deviceOrder;
+        int count = getInt();
+        for (int i = 0; i < count; i++){
+            int deviceId = getInt();
+            checkDevice(house.devices.get(deviceId));
+            int category = getInt();
+            deviceOrder.addLast(deviceId, category, getLong());
+        }
+    }
+
+    /**
+     * Writes the device groups with their members.
+     * @param groups A {@code Dictionary<String,DeviceGroup>}.
+     */
+    private void writeGroups(Dictionary<String,DeviceGroup> groups){
+        putInt(groups.size());
+        Enumeration<DeviceGroup> elements = groups.elements();
+        while (elements.hasMoreElements()){
+            DeviceGroup group = elements.nextElement();
+            putString(group.name);
+            int[] members = group.getMembers();
+            putInt(members.length);
+            for (int member: members){
+                putInt(member);
+            }
+        }
+    }
+
+    /**
+     * Reads the device groups with their members.
+     * @param groups A {@code Dictionary<String,DeviceGroup>} that is empty.
+     * @throws IOException If a group is not valid.
+     */
+    private void readGroups(Dictionary<String,DeviceGroup> groups) throws IOException {
+        int count = getInt();
+        for (int i = 0; i < count; i++){
+            String name = getString();
+            if (Validations.isNull(name)){
+                throw new IOException("Invalid group name");
+            }
+            DeviceGroup group = new DeviceGroup(name);
+            int memberCount = getInt();
+            for (int j = 0; j < memberCount; j++){
+                group.add(getInt());
+            }
+            groups.put(name, group);
+        }
+    }
+
+    /**
+     * Writes an {@code int}.
+     * @param value An {@code int}.
+     */
+    void putInt(int value){
+        ensure(Integer.BYTES);
+        buffer.putInt(value);
+    }
+
+    /**
+     * Writes a {@code long}.
+     * @param value A {@code long}.
+     */
+    void putLong(long value){
+        ensure(Long.BYTES);
+        buffer.putLong(value);
+    }
+
+    /**
+     * Writes a {@code float}.
+     * @param value A {@code float}.
+     */
+    void putFloat(float value){
+        ensure(Float.BYTES);
+        buffer.putFloat(value);
+    }
+
+    /**
+     * Writes a {@code boolean} as a byte.
+     * @param value A {@code boolean}.
+     */
+    void putBoolean(boolean value){
+        ensure(1);
+        buffer.put((byte) (value ? 1 : 0));
+    }
+
+    /**
+     * Writes an {@code Integer} that can be null. A flag byte is written before the value.
+     * @param value An {@code Integer}, or null.
+     */
+    void putNullableInt(Integer value){
+        putBoolean(!Validations.isNull(value));
+        if (!Validations.isNull(value)){
+            putInt(value);
+        }
+    }
+
+    /**
+     * Writes a {@code String} that can be null as its UTF-8 length and bytes.
+     * @param value A {@code String}, or null.
+     */
+    void putString(String value){
+        if (Validations.isNull(value)){
+            putInt(NULL_LENGTH);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        putInt(bytes.length);
+        ensure(bytes.length);
+        buffer.put(bytes);
+    }
+
+    /**
+     * Reads an {@code int}.
+     * @return An {@code int}.
+     */
+    int getInt(){
+        return buffer.getInt();
+    }
+
+    /**
+     * Reads the id of a workload according to the version of the snapshot.
+     * @return A {@code long}.
+     */
+    private long getWorkloadId(){
+        return version == FIRST_VERSION ? getInt() : getLong();
+    }
+
+    /**
+     * Reads a {@code long}.
+     * @return A {@code long}.
+     */
+    long getLong(){
+        return buffer.getLong();
+    }
+
+    /**
+     * Reads a {@code float}.
+     * @return A {@code float}.
+     */
+    float getFloat(){
+        return buffer.getFloat();
+    }
+
+    /**
+     * Reads a {@code boolean}.
+     * @return A {@code boolean}.
+     */
+    boolean getBoolean(){
+        return buffer.get() != 0;
+    }
+
+    /**
+     * Reads an {@code Integer} that is written with {@link HouseSnapshot#putNullableInt(Integer)}.
+     * @return An {@code Integer}, or null.
+     */
+    Integer getNullableInt(){
+        return getBoolean() ? buffer.getInt() : null;
+    }
+
+    /**
+     * Reads a {@code String} that is written with {@link HouseSnapshot#putString(String)}.
+     * @return A {@code String}, or null.
+     */
+    String getString(){
+        int length = buffer.getInt();
+        if (length == NULL_LENGTH){
+            return null;
+        }
+        if (length < 0 || length > buffer.remaining()){
+            throw new BufferUnderflowException();
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Doubles the buffer until it has space for a number of bytes.
+     * @param bytes An {@code int} that is the number of the bytes that will be written.
+     */
+    private void ensure(int bytes){
+        if (buffer.remaining() >= bytes){
+            return;
+        }
+        int capacity = buffer.capacity();
+        while (capacity - buffer.position() < bytes){
+            capacity *= 2;
+        }
+        ByteBuffer newBuffer = ByteBuffer.allocate(capacity);
+        buffer.flip();
+        newBuffer.put(buffer);
+        buffer = newBuffer;
+    }
+}
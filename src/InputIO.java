@@ -1,8 +1,13 @@
+import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.ArrayList;
-import java.util.Arrays;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * The {@code InputIO} class includes methods for handle the all inputs from a text file.
@@ -12,6 +17,11 @@ public class InputIO {
      * It keeps the filepath of the input file.
      */
     private final String filePath;
+    /**
+     * If it is true, text input files are parsed in parallel.
+     * @see ParallelActionParser
+     */
+    private final boolean parallelParse;
     /**
      * Gets the input file's {@link InputIO#filePath}.
      * @return A {@code String} represents the input file's filepath.
@@ -25,7 +35,17 @@ public class InputIO {
      * @param filePath The input file's filepath.
      */
     public InputIO(String filePath) {
+        this(filePath, false);
+    }
+
+    /**
+     *
+     * @param filePath The input file's filepath.
+     * @param parallelParse If it is true, the lines are parsed in parallel with a {@code ParallelActionParser}.
+     */
+    public InputIO(String filePath, boolean parallelParse) {
         this.filePath = filePath;
+        this.parallelParse = parallelParse;
     }
 
     /**
@@ -65,24 +85,60 @@ public class InputIO {
     }
 
     /**
-     *Converts a string to an {@code Action} object.
-     * @param line A string.
-     * @return An Action object.
-     * @see InputIO#splitLine(String)
+     * Gets lines of the input file as a lazy stream of Actions.
+     * <br> Lines are read with a buffered reader only when the stream is consumed,
+     * so the whole file is never kept in memory.
+     * <br> The stream must be closed after using for closing the input file.
+     * @return <p>
+     *     A {@code Stream<Action>} that contains the actions.
+     *     Each Action comes from a line form input file.
+     * </p>
+     * @throws UncheckedIOException If the input file cannot be opened.
+     * @see Action
+     * @see InputIO#convertToAction(String)
+     * @see BinaryLogReader
+     * @see ParallelActionParser
      */
-    private static Action convertToAction(String line){
-        ArrayList<String> splittedLine = splitLine(line);
-        String action = splittedLine.get(0);
-        ArrayList<String> values = new ArrayList<>(splittedLine.subList(1,splittedLine.size()));
-        return new Action(action,values,line);
+    public Stream<Action> streamActions(){
+        try {
+            if (BinaryLogReader.isBinaryLog(this.filePath)){
+                BinaryLogReader binaryReader = new BinaryLogReader(this.filePath);
+                return StreamSupport.stream(Spliterators.spliteratorUnknownSize(binaryReader, Spliterator.ORDERED), false)
+                        .onClose(binaryReader::close);
+            }
+            if (parallelParse){
+                ParallelActionParser parser = new ParallelActionParser(this.filePath);
+                return StreamSupport.stream(Spliterators.spliteratorUnknownSize(parser, Spliterator.ORDERED), false)
+                        .onClose(parser::close);
+            }
+            BufferedReader reader = Files.newBufferedReader(Paths.get(this.filePath));
+            return reader.lines()
+                    .map(InputIO::convertToAction)
+                    .onClose(() -> closeReader(reader));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read the input file: " + this.filePath, e);
+        }
     }
 
     /**
-     * Splits the line form {@code \t} character.
-     * @param line A {@code String} object.
-     * @return An {@code ArrayList<String>} that contains substrings in the line.
+     * Closes the reader of the input file.
+     * @param reader A {@code BufferedReader} object.
      */
-    private static ArrayList<String> splitLine(String line){
-        return new ArrayList<>(Arrays.asList(line.split("\t")));
+    private static void closeReader(BufferedReader reader){
+        try {
+            reader.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     *Converts a string to an {@code Action} object.
+     * @param line A string.
+     * @return An Action object.
+     * @see LineTokenizer#findFieldEnds(String)
+     */
+    private static Action convertToAction(String line){
+        return new Action(line, LineTokenizer.findFieldEnds(line));
     }
 }
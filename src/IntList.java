@@ -0,0 +1,69 @@
+import java.util.Arrays;
+
+/**
+ * The {@code IntList} class is a growable list of {@code int} values without boxing.
+ * <br> It is reused to take the workload handles from the schedulers without allocating a list each time.
+ * @see WorkloadScheduler#pollDue(long, IntList)
+ */
+public class IntList {
+    /**
+     * The values of the list. Only the first {@link IntList#size} values are used.
+     */
+    private int[] values = new int[8];
+    /**
+     * Number of the values in the list.
+     */
+    private int size = 0;
+
+    /**
+     * Adds a value to the end of the list.
+     * @param value An {@code int}.
+     */
+    public void add(int value){
+        if (size == values.length){
+            values = Arrays.copyOf(values, size * 2);
+        }
+        values[size++] = value;
+    }
+
+    /**
+     * Gets a value of the list.
+     * @param index An {@code int} that is the index of the value.
+     * @return An {@code int}.
+     */
+    public int get(int index){
+        return values[index];
+    }
+
+    /**
+     * Sets a value of the list.
+     * @param index An {@code int} that is the index of the value.
+     * @param value An {@code int} that is the new value.
+     */
+    public void set(int index, int value){
+        values[index] = value;
+    }
+
+    /**
+     * Gets the number of the values in the list.
+     * @return An {@code int}.
+     */
+    public int size(){
+        return size;
+    }
+
+    /**
+     * Checks the list is empty.
+     * @return If there is no value in the list, returns true.
+     */
+    public boolean isEmpty(){
+        return size == 0;
+    }
+
+    /**
+     * Removes all values of the list. The capacity of the list is kept.
+     */
+    public void clear(){
+        size = 0;
+    }
+}
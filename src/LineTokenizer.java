@@ -0,0 +1,57 @@
+/**
+ * The {@code LineTokenizer} class finds the {@code \t} separated fields of a command line
+ * without creating substrings.
+ * <br> Fields are kept as offsets in the line and gives the same fields with {@code line.split("\t")}.
+ * Trailing empty fields are ignored.
+ * @see Action
+ */
+public class LineTokenizer {
+    /**
+     * Finds the end offsets of the fields in the line.
+     * <br> The field at index {@code i} starts at {@link LineTokenizer#fieldStart(int[], int)}
+     * and ends at {@code fieldEnds[i]} (exclusive).
+     * @param line A {@code String} object.
+     * @return An {@code int} array that contains the end offsets of the fields.
+     */
+    public static int[] findFieldEnds(String line){
+        int length = line.length();
+        int tabCount = 0;
+        for (int i = 0; i < length; i++){
+            if (line.charAt(i) == '\t'){
+                tabCount++;
+            }
+        }
+        int[] fieldEnds = new int[tabCount + 1];
+        int field = 0;
+        for (int i = 0; i < length && field < tabCount; i++){
+            if (line.charAt(i) == '\t'){
+                fieldEnds[field++] = i;
+            }
+        }
+        fieldEnds[tabCount] = length;
+        return fieldEnds;
+    }
+
+    /**
+     * Gets the start offset of a field.
+     * @param fieldEnds An {@code int} array from {@link LineTokenizer#findFieldEnds(String)}.
+     * @param index An {@code int} represents the index of the field.
+     * @return An {@code int} that represents the start offset of the field.
+     */
+    public static int fieldStart(int[] fieldEnds, int index){
+        return index == 0 ? 0 : fieldEnds[index - 1] + 1;
+    }
+
+    /**
+     * Counts the fields except the trailing empty fields.
+     * @param fieldEnds An {@code int} array from {@link LineTokenizer#findFieldEnds(String)}.
+     * @return An {@code int} that represents the number of fields.
+     */
+    public static int countFields(int[] fieldEnds){
+        int count = fieldEnds.length;
+        while (count > 0 && fieldStart(fieldEnds, count - 1) == fieldEnds[count - 1]){
+            count--;
+        }
+        return count;
+    }
+}
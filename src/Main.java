@@ -1,4 +1,10 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.stream.Stream;
 
 /**
  * The {@code Main} class for executing the whole program.
@@ -11,28 +17,103 @@ public class Main {
      * @param args console arguments.
      */
     public static void main(String[] args){
-        InputIO inputFile = new InputIO(args[0]);
-        OutputIO outputFile = new OutputIO(args[1]);
-        ArrayList<Action> actions = inputFile.getLinesAsActions();
+        ProgramOptions options = new ProgramOptions(args, 2);
+        InputIO inputFile = new InputIO(args[0], options.parallelParse);
+        House house = new House(options);
+        House.bind(house);
+        try(OutputIO outputFile = new OutputIO(args[1], options)){
+            if (!Files.isReadable(Paths.get(args[0]))){
+                // A single house ends the program if its input file cannot be read.
+                System.exit(1);
+            }
+            if (options.journalPath != null){
+                house.journal = CommandJournal.open(options);
+            }
+            if (options.pipeline){
+                Pipeline.run(inputFile, outputFile);
+            }else{
+                run(inputFile, outputFile);
+            }
+        } catch (IOException e){
+            throw new UncheckedIOException(e);
+        } finally {
+            closeJournal(house);
+            House.unbind();
+        }
+    }
+
+    /**
+     * Forces the journal of a house to the disk and closes it if the house has a journal.
+     * @param house A {@code House}.
+     * @see CommandJournal#close()
+     */
+    private static void closeJournal(House house){
+        if (Validations.isNull(house.journal)){
+            return;
+        }
+        try {
+            house.journal.close();
+        } catch (IOException e){
+            throw new UncheckedIOException(e);
+        } finally {
+            house.journal = null;
+        }
+    }
+
+    /**
+     * Executes the actions of the input file one by one and writes the responses.
+     * @param inputFile An {@code InputIO} of the input file.
+     * @param outputFile An {@code OutputIO} of the output file.
+     */
+    static void run(InputIO inputFile, OutputIO outputFile){
+        try(Stream<Action> actions = inputFile.streamActions()){
+            execute(actions.iterator(), outputFile);
+        }
+    }
+
+    /**
+     * Executes the actions in order and gives the responses to the output.
+     * <br> If the last action is not a ZReport, a ZReport is given to the output at the end.
+     * @param actions An {@code Iterator<Action>} that provides the actions in order.
+     * @param output A {@code ResponseSink} that takes the responses in order.
+     * @see SmartDeviceController#actionHandler(Action)
+     */
+    static void execute(Iterator<Action> actions, ResponseSink output){
+        RealTimeClock clock = House.current().clock;
         try{
             Action lastAction = null;
-            for(Action action : actions){
-                Object response = SmartDeviceController.actionHandler(action);
+            while (actions.hasNext()){
+                Action action = actions.next();
+                Object response;
+                if (Validations.isNull(clock)){
+                    response = SmartDeviceController.actionHandler(action);
+                    output.advanceTime(SmartDeviceController.getTime());
+                }else{
+                    response = clock.execute(action);
+                    output.advanceTime(clock.getTime());
+                }
                 if (!Validations.isNull(response)){
-                    outputFile.write((String) response);
+                    output.write((String) response);
                 }
                 lastAction = action;
             }
             if(Validations.isNull(lastAction)){
                 throw new DeviceExceptions.InvalidCommandException("");
             }
+            if (!Validations.isNull(clock)){
+                clock.stop();
+            }
             if (!"ZReport".equals(lastAction.actionName)){
                 String report = "ZReport:\n";
                 report += SmartDeviceController.zReport(new ArrayList<>());
-                outputFile.write(report);
+                output.write(report);
             }
         }catch (DeviceExceptions e){
-            outputFile.write(e.getMessage());
+            output.write(e.getMessage());
+        }finally {
+            if (!Validations.isNull(clock)){
+                clock.stop();
+            }
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,166 @@
+import java.util.Arrays;
+
+/**
+ * <p>
+ *   The {@code OrderedWorkloadScheduler} class keeps the scheduled workloads of a house in a binary heap
+ *   in order of their executing times.
+ * </p>
+ * Workloads that have the same executing time are ordered by their ids, so they are in the order that they are added.
+ * The position of each workload in the heap is kept by its handle, so a workload is removed without searching.
+ * Adding and removing a workload and taking the next workloads take {@code O(log n)} time.
+ * @see WorkloadStore
+ * @see House#scheduler
+ */
+public class OrderedWorkloadScheduler implements WorkloadScheduler {
+    /**
+     * The store that keeps the values of the workloads.
+     */
+    private final WorkloadStore store;
+    /**
+     * Handles of the scheduled workloads as a binary heap. Only the first {@link OrderedWorkloadScheduler#size} are used.
+     */
+    private int[] heap = new int[16];
+    /**
+     * Positions of the workloads in the heap according to their handles. It is -1 if the workload is not scheduled.
+     */
+    private int[] positions = new int[0];
+    /**
+     * Number of the scheduled workloads.
+     */
+    private int size = 0;
+
+    /**
+     * Creates an empty scheduler.
+     * @param store A {@code WorkloadStore} that keeps the values of the workloads.
+     */
+    public OrderedWorkloadScheduler(WorkloadStore store){
+        this.store = store;
+    }
+
+    /**
+     * Adds a workload to the schedule.
+     * @param workload An {@code int} that is the handle of the workload.
+     */
+    @Override
+    public void add(int workload){
+        if (workload >= positions.length){
+            int length = positions.length;
+            positions = Arrays.copyOf(positions, Math.max(store.capacity(), workload + 1));
+            Arrays.fill(positions, length, positions.length, -1);
+        }
+        if (size == heap.length){
+            heap = Arrays.copyOf(heap, size * 2);
+        }
+        heap[size] = workload;
+        positions[workload] = size;
+        siftUp(size++);
+    }
+
+    /**
+     * Removes a workload from the schedule if it is scheduled.
+     * @param workload An {@code int} that is the handle of the workload.
+     */
+    @Override
+    public void remove(int workload){
+        if (workload < 0 || workload >= positions.length || positions[workload] < 0){
+            return;
+        }
+        removeAt(positions[workload]);
+    }
+
+    /**
+     * Gets the executing time of the first workload.
+     * @return A {@code long} as epoch milliseconds, or {@link WorkloadScheduler#NO_TIME} if there is no scheduled workload.
+     */
+    @Override
+    public long nextTime(){
+        return size == 0 ? NO_TIME : store.getTime(heap[0]);
+    }
+
+    /**
+     * Takes the workloads that have the first executing time if the time is not after the given time.
+     * @param time A {@code long} that is the last executing time that can be taken as epoch milliseconds.
+     * @param dueWorkloads An {@code IntList} that is cleared and filled with the handles of the workloads in order.
+     */
+    @Override
+    public void pollDue(long time, IntList dueWorkloads){
+        dueWorkloads.clear();
+        long nextTime = nextTime();
+        if (nextTime == NO_TIME || nextTime > time){
+            return;
+        }
+        while (size > 0 && store.getTime(heap[0]) == nextTime){
+            dueWorkloads.add(heap[0]);
+            removeAt(0);
+        }
+    }
+
+    /**
+     * Gets the number of the scheduled workloads.
+     * @return An {@code int}.
+     */
+    @Override
+    public int size(){
+        return size;
+    }
+
+    /**
+     * Removes the workload at a position of the heap.
+     * @param position An {@code int} that is the position.
+     */
+    private void removeAt(int position){
+        positions[heap[position]] = -1;
+        size--;
+        if (position == size){
+            return;
+        }
+        heap[position] = heap[size];
+        positions[heap[position]] = position;
+        siftDown(position);
+        siftUp(position);
+    }
+
+    /**
+     * Moves the workload at a position up until its parent is before it.
+     * @param position An {@code int} that is the position.
+     */
+    private void siftUp(int position){
+        int workload = heap[position];
+        while (position > 0){
+            int parent = (position - 1) / 2;
+            if (store.compare(heap[parent], workload) <= 0){
+                break;
+            }
+            heap[position] = heap[parent];
+            positions[heap[position]] = position;
+            position = parent;
+        }
+        heap[position] = workload;
+        positions[workload] = position;
+    }
+
+    /**
+     * Moves the workload at a position down until its children are after it.
+     * @param position An {@code int} that is the position.
+     */
+    private void siftDown(int position){
+        int workload = heap[position];
+        while (true){
+            int child = position * 2 + 1;
+            if (child >= size){
+                break;
+            }
+            if (child + 1 < size && store.compare(heap[child + 1], heap[child]) < 0){
+                child++;
+            }
+            if (store.compare(workload, heap[child]) <= 0){
+                break;
+            }
+            heap[position] = heap[child];
+            positions[heap[position]] = position;
+            position = child;
+        }
+        heap[position] = workload;
+        positions[workload] = position;
+    }
+}
@@ -1,38 +1,258 @@
-import java.io.FileWriter;
+import java.io.BufferedWriter;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
 
 /**
  * The {@code OutputIO} class includes methods for outputs.
+ * <br> The output file is opened once and kept open with a buffer until {@link OutputIO#close()} is called.
+ * When the buffer is flushed to the file is decided by the {@link FlushPolicy} of the object.
+ * <br> The methods that use the file hold the lock of the object, so the buffer can be flushed from a background thread.
+ * <p>
+ *     The outputs can be split into segment files according to the {@link SegmentPolicy}.
+ *     Segment files are named as the output file name and a segment number, such as {@code output.txt.00000}.
+ *     If compression is selected, each finished segment is compressed to a {@code .gz} file on a background thread.
+ * </p>
+ * Sizes of the flush and segment policies are counted as bytes in the encoding of the output file.
  */
-public class OutputIO {
+public class OutputIO implements AutoCloseable, ResponseSink {
+    /**
+     * Size of the output buffer as characters.
+     */
+    private static final int BUFFER_SIZE = 1 << 16;
+    /**
+     * The encoding of the output files. It is the default encoding as {@code FileWriter} uses.
+     */
+    private static final Charset CHARSET = Charset.defaultCharset();
+    /**
+     * Shows the encoding of the output files is UTF-8, so the sizes are counted without encoding the texts.
+     */
+    private static final boolean UTF_8 = CHARSET.equals(StandardCharsets.UTF_8);
     /**
      * Name of the output file.
      */
     public String filename;
+    /**
+     * The buffered writer of the output file.
+     */
+    private Writer writer;
+    /**
+     * Decides when the buffered outputs are flushed to the file.
+     */
+    private final FlushPolicy flushPolicy;
+    /**
+     * Number of bytes for {@link FlushPolicy#BYTES} or milliseconds for {@link FlushPolicy#INTERVAL}.
+     */
+    private final long flushThreshold;
+    /**
+     * Number of bytes that written after the last flush.
+     */
+    private long unflushedSize = 0;
+    /**
+     * The time of the last flush as milliseconds.
+     */
+    private long lastFlushTime = System.currentTimeMillis();
+    /**
+     * Decides when the output continues with a new segment file.
+     */
+    private final SegmentPolicy segmentPolicy;
+    /**
+     * Maximum number of bytes in a segment for {@link SegmentPolicy#SIZE}.
+     */
+    private final long segmentSize;
+    /**
+     * If it is true, finished segments are compressed with gzip.
+     */
+    private final boolean compress;
+    /**
+     * Number of the current segment.
+     */
+    private int segmentIndex = 0;
+    /**
+     * Number of bytes that written to the current segment.
+     */
+    private long segmentLength = 0;
+    /**
+     * The simulated day of the current segment for {@link SegmentPolicy#DAY}.
+     */
+    private Long segmentDay = null;
+    /**
+     * The background thread that compresses the finished segments. It is created with the first finished segment.
+     */
+    private ExecutorService compressor;
+    /**
+     * The background thread that flushes the outputs for {@link FlushPolicy#INTERVAL}, or null.
+     */
+    private ScheduledExecutorService flusher;
+
+    /**
+     * The {@code FlushPolicy} enum represents when the buffered outputs are written to the output file.
+     */
+    public enum FlushPolicy {
+        /**
+         * Flushes after every write.
+         */
+        EVERY_WRITE,
+        /**
+         * Flushes when the unflushed outputs reach a specific size.
+         */
+        BYTES,
+        /**
+         * Flushes when a specific time is passed since the last flush.
+         * <br> The time is checked when an output is written and on a background thread,
+         * so the last outputs before a pause are also flushed in time.
+         */
+        INTERVAL,
+        /**
+         * Flushes only when the output file is closed.
+         */
+        END
+    }
 
     /**
-     * Creates a OutputIO object and output file.
+     * The {@code SegmentPolicy} enum represents when the output continues with a new segment file.
+     */
+    public enum SegmentPolicy {
+        /**
+         * All outputs are written to one file.
+         */
+        NONE,
+        /**
+         * A new segment starts when the segment reaches a specific size.
+         */
+        SIZE,
+        /**
+         * A new segment starts when the simulated day of the house changes.
+         */
+        DAY
+    }
+
+    /**
+     * Creates a OutputIO object and output file. Outputs are flushed after every write.
      * @param filename Name of the output file. ({@code String})
      * @see OutputIO#createOutFile(String)
      */
     public OutputIO(String filename){
+        this(filename, FlushPolicy.EVERY_WRITE, 0);
+    }
+
+    /**
+     * Creates a OutputIO object and output file with a flush policy.
+     * @param filename Name of the output file. ({@code String})
+     * @param flushPolicy A {@code FlushPolicy} that decides when outputs are flushed.
+     * @param flushThreshold A {@code long} that represents size as bytes for {@link FlushPolicy#BYTES}
+     *                       or time as milliseconds for {@link FlushPolicy#INTERVAL}.
+     * @see OutputIO#createOutFile(String)
+     */
+    public OutputIO(String filename, FlushPolicy flushPolicy, long flushThreshold){
+        this(filename, flushPolicy, flushThreshold, SegmentPolicy.NONE, 0, false);
+    }
+
+    /**
+     * Creates a OutputIO object and output file according to the program options.
+     * @param filename Name of the output file. ({@code String})
+     * @param options A {@code ProgramOptions} that contains the flush and segment options.
+     */
+    public OutputIO(String filename, ProgramOptions options){
+        this(filename, options.flushPolicy, options.flushThreshold,
+                options.segmentPolicy, options.segmentSize, options.compressSegments);
+    }
+
+    /**
+     * Creates a OutputIO object and the first output file with a flush policy and a segment policy.
+     * @param filename Name of the output file. ({@code String})
+     * @param flushPolicy A {@code FlushPolicy} that decides when outputs are flushed.
+     * @param flushThreshold A {@code long} that represents size as bytes for {@link FlushPolicy#BYTES}
+     *                       or time as milliseconds for {@link FlushPolicy#INTERVAL}.
+     * @param segmentPolicy A {@code SegmentPolicy} that decides when a new segment file starts.
+     * @param segmentSize A {@code long} that represents maximum bytes in a segment for {@link SegmentPolicy#SIZE}.
+     * @param compress If it is true, finished segments are compressed with gzip.
+     */
+    public OutputIO(String filename, FlushPolicy flushPolicy, long flushThreshold,
+                    SegmentPolicy segmentPolicy, long segmentSize, boolean compress){
         this.filename = filename;
-        createOutFile(this.filename);
+        this.flushPolicy = flushPolicy;
+        this.flushThreshold = flushThreshold;
+        this.segmentPolicy = segmentPolicy;
+        this.segmentSize = segmentSize;
+        this.compress = compress && segmentPolicy != SegmentPolicy.NONE;
+        this.writer = createOutFile(getSegmentName());
+        if (flushPolicy == FlushPolicy.INTERVAL){
+            flusher = Executors.newSingleThreadScheduledExecutor(task -> {
+                Thread thread = new Thread(task, "output-flush");
+                thread.setDaemon(true);
+                return thread;
+            });
+            flusher.scheduleWithFixedDelay(this::flushInBackground, flushThreshold, flushThreshold, TimeUnit.MILLISECONDS);
+        }
     }
 
     /**
-     * Creates an output file with given name.
+     * Gets the file name of the current segment.
+     * @return A {@code String} that is the output file name if there is no segment policy.
+     */
+    private String getSegmentName(){
+        if (segmentPolicy == SegmentPolicy.NONE){
+            return filename;
+        }
+        return String.format("%s.%05d", filename, segmentIndex);
+    }
+
+    /**
+     * Creates an output file with given name and opens a buffered writer for it.
      * @param filename Name of the output file. ({@code String})
+     * @return A {@code Writer} of the output file. If the file cannot be created, returns null.
      */
-    private static void createOutFile(String filename){
-        FileWriter file;
+    private static Writer createOutFile(String filename){
         try {
-            file = new FileWriter(filename);
-            file.close();
+            return openOutFile(filename);
         } catch (IOException e) {
+            return null;
         }
     }
 
+    /**
+     * Creates an output file with given name and opens a buffered writer for it.
+     * @param filename Name of the output file. ({@code String})
+     * @return A {@code Writer} of the output file.
+     * @throws IOException If the file cannot be created.
+     */
+    private static Writer openOutFile(String filename) throws IOException {
+        return new BufferedWriter(new OutputStreamWriter(Files.newOutputStream(Paths.get(filename)), CHARSET), BUFFER_SIZE);
+    }
+
+    /**
+     * Counts the bytes of a text in the encoding of the output files.
+     * @param text A {@code String}.
+     * @return A {@code long}.
+     */
+    private static long encodedLength(String text){
+        if (!UTF_8){
+            return text.getBytes(CHARSET).length;
+        }
+        long length = text.length();
+        for (int i = 0; i < text.length(); i++){
+            char c = text.charAt(i);
+            if (c >= 0x80){
+                // 2 bytes below U+0800, 3 bytes for the others, and 4 bytes for a surrogate pair.
+                length += c < 0x800 || Character.isLowSurrogate(c) ? 1 : 2;
+            }
+        }
+        return length;
+    }
+
     /**
      * Appends a text to the output file with a newline character last of the text.
      * @param obj An Object.
@@ -49,11 +269,168 @@ public class OutputIO {
      * @param <T> Generic type operator.
      */
     public <T> void write(T obj){
+        write(String.valueOf(obj));
+    }
+
+    /**
+     * Appends a text to the output file. If the current segment becomes larger than the segment size
+     * with the text, the text is written to a new segment.
+     * @param text A {@code String}.
+     * @throws UncheckedIOException If the file of the new segment cannot be created.
+     */
+    @Override
+    public synchronized void write(String text){
+        if (Validations.isNull(writer)){
+            return;
+        }
+        // The bytes are counted only for the policies that use them. The others only check the length is not 0.
+        long length = flushPolicy == FlushPolicy.BYTES || segmentPolicy == SegmentPolicy.SIZE ? encodedLength(text) : text.length();
+        if (segmentPolicy == SegmentPolicy.SIZE && segmentLength > 0 && segmentLength + length > segmentSize){
+            nextSegment();
+        }
+        segmentLength += length;
+        try {
+            writer.write(text);
+        } catch (IOException e) {
+            return;
+        }
+        unflushedSize += length;
+        if (isFlushTime()){
+            flush();
+        }
+    }
+
+    /**
+     * Starts a new segment if the simulated day is changed for {@link SegmentPolicy#DAY}.
+     * @param time A {@code long} as epoch milliseconds that represents the time of the house.
+     * @throws UncheckedIOException If the file of the new segment cannot be created.
+     */
+    @Override
+    public synchronized void advanceTime(long time){
+        if (segmentPolicy != SegmentPolicy.DAY || !Validations.isTime(time) || Validations.isNull(writer)){
+            return;
+        }
+        long day = Math.floorDiv(TimeFormat.toLocal(time), 24L * 60 * 60 * 1000);
+        if (!Validations.isNull(segmentDay) && segmentDay != day && segmentLength > 0){
+            nextSegment();
+        }
+        segmentDay = day;
+    }
+
+    /**
+     * Closes the current segment, compresses it in background if it is selected and opens the next segment.
+     * @throws UncheckedIOException If the file of the next segment cannot be created.
+     */
+    private void nextSegment(){
+        closeSegment();
+        segmentIndex++;
+        segmentLength = 0;
+        String segmentName = getSegmentName();
         try {
-            FileWriter outFile = new FileWriter(this.filename, true);
-            outFile.write(String.valueOf(obj));
-            outFile.close();
+            writer = openOutFile(segmentName);
         } catch (IOException e) {
+            throw new UncheckedIOException("Cannot create the segment file: " + segmentName, e);
+        }
+    }
+
+    /**
+     * Closes the current segment and compresses it in background if it is selected.
+     */
+    private void closeSegment(){
+        try {
+            writer.close();
+        } catch (IOException e) {
+        }
+        writer = null;
+        unflushedSize = 0;
+        if (compress){
+            if (Validations.isNull(compressor)){
+                compressor = Executors.newSingleThreadExecutor();
+            }
+            Path segment = Paths.get(getSegmentName());
+            compressor.execute(() -> compressFile(segment));
+        }
+    }
+
+    /**
+     * Compresses a file to a {@code .gz} file with the same name and deletes the file.
+     * @param file A {@code Path} of the file.
+     */
+    private static void compressFile(Path file){
+        Path compressed = Paths.get(file + ".gz");
+        try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(compressed), 1 << 16)){
+            Files.copy(file, out);
+        } catch (IOException e) {
+            return;
+        }
+        try {
+            Files.delete(file);
+        } catch (IOException e) {
+        }
+    }
+
+    /**
+     * Checks the buffered outputs must be flushed according to {@link OutputIO#flushPolicy}.
+     * @return If the outputs must be flushed, returns true.
+     */
+    private boolean isFlushTime(){
+        switch (flushPolicy){
+            case EVERY_WRITE:
+                return true;
+            case BYTES:
+                return unflushedSize >= flushThreshold;
+            case INTERVAL:
+                return System.currentTimeMillis() - lastFlushTime >= flushThreshold;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Flushes the buffered outputs on the background thread if the time of {@link FlushPolicy#INTERVAL} is passed.
+     */
+    private synchronized void flushInBackground(){
+        if (unflushedSize > 0 && isFlushTime()){
+            flush();
+        }
+    }
+
+    /**
+     * Writes the buffered outputs to the output file.
+     */
+    public synchronized void flush(){
+        if (Validations.isNull(writer)){
+            return;
+        }
+        try {
+            writer.flush();
+        } catch (IOException e) {
+        }
+        unflushedSize = 0;
+        lastFlushTime = System.currentTimeMillis();
+    }
+
+    /**
+     * Flushes the buffered outputs and closes the output file.
+     * If compression is selected, waits until all segments are compressed.
+     */
+    @Override
+    public void close(){
+        if (!Validations.isNull(flusher)){
+            flusher.shutdown();
+        }
+        synchronized (this){
+            if (!Validations.isNull(writer)){
+                closeSegment();
+            }
+        }
+        if (!Validations.isNull(compressor)){
+            compressor.shutdown();
+            try {
+                compressor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
         }
     }
 }
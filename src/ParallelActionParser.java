@@ -0,0 +1,302 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * <p>
+ *   The {@code ParallelActionParser} class parses a large input file with the threads of a {@code ForkJoinPool}
+ *   and gives the {@code Actions} in their original order.
+ * </p>
+ * The file is read in windows. Each window is split into chunks at line boundaries, and the chunks are
+ * tokenized and prevalidated in parallel. While the actions of a window are executed, the next window is parsed.
+ * <br> Lines are split in the same way with {@code BufferedReader}: {@code \n}, {@code \r} or {@code \r\n} ends a line.
+ * @see InputIO#streamActions()
+ * @see Action#prevalidate()
+ */
+public class ParallelActionParser implements Iterator<Action>, AutoCloseable {
+    /**
+     * Approximate size of a chunk as bytes.
+     */
+    private static final int CHUNK_SIZE = 1 << 20;
+    /**
+     * The pool that parses the chunks.
+     */
+    private static final ForkJoinPool pool = ForkJoinPool.commonPool();
+
+    /**
+     * The channel of the input file.
+     */
+    private final FileChannel channel;
+    /**
+     * Size of a window as bytes.
+     */
+    private final int windowSize;
+    /**
+     * The bytes of the unfinished last line of the previous window.
+     */
+    private byte[] leftover = new byte[0];
+    /**
+     * Shows the end of the file is read.
+     */
+    private boolean endOfFile = false;
+    /**
+     * The window that is being parsed. It is null if there is no window left.
+     */
+    private ForkJoinTask<ArrayList<Action>> nextWindow;
+    /**
+     * The actions of the current window.
+     */
+    private ArrayList<Action> actions = new ArrayList<>();
+    /**
+     * Index of the next action in the current window.
+     */
+    private int index = 0;
+
+    /**
+     * Opens the input file and starts parsing its first window.
+     * @param filePath A {@code String} that is the input file path.
+     * @throws IOException If the file cannot be opened.
+     */
+    public ParallelActionParser(String filePath) throws IOException {
+        this.channel = FileChannel.open(Paths.get(filePath), StandardOpenOption.READ);
+        this.windowSize = CHUNK_SIZE * Math.max(pool.getParallelism(), 1) * 2;
+        this.nextWindow = pool.submit(this::parseWindow);
+    }
+
+    @Override
+    public boolean hasNext(){
+        while (index == actions.size()){
+            if (nextWindow == null){
+                return false;
+            }
+            actions = nextWindow.join();
+            index = 0;
+            nextWindow = endOfFile ? null : pool.submit(this::parseWindow);
+        }
+        return true;
+    }
+
+    @Override
+    public Action next(){
+        if (!hasNext()){
+            throw new NoSuchElementException();
+        }
+        Action action = actions.get(index);
+        actions.set(index++, null);
+        return action;
+    }
+
+    /**
+     * Reads the next window from the file and parses its chunks in parallel.
+     * <br> Windows are parsed one after another, so only one window task uses the file at the same time.
+     * @return An {@code ArrayList<Action>} that contains the actions of the complete lines in the window.
+     */
+    private ArrayList<Action> parseWindow(){
+        byte[] window = readWindow();
+        int end = endOfFile ? window.length : lastLineEnd(window);
+        leftover = Arrays.copyOfRange(window, end, window.length);
+        return new ChunkTask(window, splitChunks(window, end), 0, -1).compute();
+    }
+
+    /**
+     * Reads a window of bytes from the file after the leftover bytes of the previous window.
+     * @return A {@code byte} array of the window.
+     */
+    private byte[] readWindow(){
+        ByteBuffer buffer = ByteBuffer.allocate(leftover.length + windowSize);
+        buffer.put(leftover);
+        try {
+            while (buffer.hasRemaining()){
+                if (channel.read(buffer) < 0){
+                    endOfFile = true;
+                    break;
+                }
+            }
+        } catch (IOException e){
+            throw new UncheckedIOException(e);
+        }
+        return Arrays.copyOf(buffer.array(), buffer.position());
+    }
+
+    /**
+     * Finds the end of the last complete line in a window.
+     * <br> A {@code \r} at the end of the window is not a line end yet, because the next window can start with
+     * the {@code \n} of the same {@code \r\n}. It is kept with the leftover bytes.
+     * @param window A {@code byte} array.
+     * @return An {@code int} that is the index after the last line end, or 0 if there is not.
+     */
+    private static int lastLineEnd(byte[] window){
+        if (window.length > 0 && window[window.length - 1] == '\n'){
+            return window.length;
+        }
+        for (int i = window.length - 1; i > 0; i--){
+            if (isLineEnd(window, i)){
+                return i;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Checks a line ends before a position: the previous byte is {@code \n}, or it is {@code \r} that is not
+     * followed by {@code \n}.
+     * @param window A {@code byte} array.
+     * @param position An {@code int} that is greater than 0 and less than the length of the window.
+     * @return If a line ends before the position, returns true.
+     */
+    private static boolean isLineEnd(byte[] window, int position){
+        byte previous = window[position - 1];
+        return previous == '\n' || (previous == '\r' && window[position] != '\n');
+    }
+
+    /**
+     * Splits the window into chunks at line boundaries.
+     * @param window A {@code byte} array.
+     * @param end An {@code int} that is the end of the complete lines in the window.
+     * @return An {@code int} array that contains the start of each chunk and the end of the last chunk.
+     */
+    private static int[] splitChunks(byte[] window, int end){
+        ArrayList<Integer> bounds = new ArrayList<>();
+        bounds.add(0);
+        int start = 0;
+        while (end - start > CHUNK_SIZE){
+            int bound = start + CHUNK_SIZE;
+            while (bound < end && !isLineEnd(window, bound)){
+                bound++;
+            }
+            bounds.add(bound);
+            start = bound;
+        }
+        if (end > start){
+            bounds.add(end);
+        }
+        return bounds.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * Parses the lines of a chunk to prevalidated actions.
+     * @param window A {@code byte} array.
+     * @param start An {@code int} that is the start of the chunk.
+     * @param end An {@code int} that is the end of the chunk.
+     * @return An {@code ArrayList<Action>} that contains the actions of the chunk in order.
+     */
+    private static ArrayList<Action> parseChunk(byte[] window, int start, int end){
+        String text;
+        try {
+            text = StandardCharsets.UTF_8.newDecoder().decode(ByteBuffer.wrap(window, start, end - start)).toString();
+        } catch (CharacterCodingException e){
+            throw new UncheckedIOException(e);
+        }
+        ArrayList<Action> chunkActions = new ArrayList<>();
+        int lineStart = 0;
+        int length = text.length();
+        for (int i = 0; i < length; i++){
+            char c = text.charAt(i);
+            if (c == '\n' || c == '\r'){
+                chunkActions.add(parseLine(text.substring(lineStart, i)));
+                if (c == '\r' && i + 1 < length && text.charAt(i + 1) == '\n'){
+                    i++;
+                }
+                lineStart = i + 1;
+            }
+        }
+        if (lineStart < length){
+            chunkActions.add(parseLine(text.substring(lineStart)));
+        }
+        return chunkActions;
+    }
+
+    /**
+     * Converts a line to a prevalidated {@code Action}.
+     * @param line A {@code String}.
+     * @return An {@code Action}.
+     */
+    private static Action parseLine(String line){
+        Action action = new Action(line, LineTokenizer.findFieldEnds(line));
+        action.prevalidate();
+        return action;
+    }
+
+    /**
+     * Stops parsing and closes the input file.
+     */
+    @Override
+    public void close(){
+        if (nextWindow != null){
+            nextWindow.cancel(false);
+            nextWindow.quietlyJoin();
+            nextWindow = null;
+        }
+        try {
+            channel.close();
+        } catch (IOException e){
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * The {@code ChunkTask} class parses a range of chunks by dividing it into halves.
+     */
+    private static class ChunkTask extends RecursiveTask<ArrayList<Action>> {
+        /**
+         * Version of the serialized form of the task.
+         */
+        private static final long serialVersionUID = 1L;
+        /**
+         * The bytes of the window.
+         */
+        private final byte[] window;
+        /**
+         * Bounds of all chunks in the window.
+         * @see ParallelActionParser#splitChunks(byte[], int)
+         */
+        private final int[] bounds;
+        /**
+         * Index of the first chunk of the task.
+         */
+        private final int first;
+        /**
+         * Index after the last chunk of the task, or -1 for all chunks.
+         */
+        private final int last;
+
+        /**
+         * Creates a {@code ChunkTask} for a range of chunks.
+         * @param window The bytes of the window.
+         * @param bounds Bounds of all chunks in the window.
+         * @param first Index of the first chunk.
+         * @param last Index after the last chunk, or -1 for all chunks.
+         */
+        ChunkTask(byte[] window, int[] bounds, int first, int last){
+            this.window = window;
+            this.bounds = bounds;
+            this.first = first;
+            this.last = last < 0 ? bounds.length - 1 : last;
+        }
+
+        @Override
+        protected ArrayList<Action> compute(){
+            if (last - first <= 1){
+                return first < last ? parseChunk(window, bounds[first], bounds[last]) : new ArrayList<>();
+            }
+            int middle = (first + last) / 2;
+            ChunkTask right = new ChunkTask(window, bounds, middle, last);
+            right.fork();
+            ArrayList<Action> result = new ChunkTask(window, bounds, first, middle).compute();
+            result.addAll(right.join());
+            return result;
+        }
+    }
+}
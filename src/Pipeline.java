@@ -0,0 +1,346 @@
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.stream.Stream;
+
+/**
+ * <p>
+ *   The {@code Pipeline} class executes the program in three stages that run on different threads:
+ *   <br> -Parsing the input file to {@code Actions}.
+ *   <br> -Executing the {@code Actions} with {@code SmartDeviceController} on the calling thread.
+ *   <br> -Writing the responses to the output file.
+ * </p>
+ * The stages hand off their results in batches through bounded queues, so the outputs are the same
+ * and in the same order with the sequential execution.
+ * @see Main#execute(Iterator, ResponseSink)
+ */
+public class Pipeline {
+    /**
+     * Maximum number of items in a batch that passed between stages.
+     */
+    private static final int BATCH_SIZE = 256;
+    /**
+     * Maximum number of batches waiting in a queue between stages.
+     */
+    private static final int QUEUE_CAPACITY = 64;
+    /**
+     * The batch that marks the end of a queue. It is compared by identity.
+     */
+    private static final ArrayList<?> END_OF_QUEUE = new ArrayList<>();
+
+    /**
+     * Parses the input file, executes the actions and writes the responses on different threads.
+     * @param inputFile An {@code InputIO} of the input file.
+     * @param outputFile An {@code OutputIO} of the output file.
+     */
+    public static void run(InputIO inputFile, OutputIO outputFile){
+        BlockingQueue<ArrayList<Action>> actionQueue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+        BlockingQueue<ArrayList<Object>> responseQueue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+        ActionReceiver receiver = new ActionReceiver(actionQueue);
+        ResponseSender sender = new ResponseSender(responseQueue);
+
+        Thread parser = new Thread(() -> parse(inputFile, actionQueue, receiver), "pipeline-parser");
+        Thread writer = new Thread(() -> write(responseQueue, outputFile, sender), "pipeline-writer");
+        parser.setDaemon(true);
+        writer.setDaemon(true);
+        parser.start();
+        writer.start();
+        try {
+            Main.execute(receiver, sender);
+        } finally {
+            parser.interrupt();
+            sender.finish();
+            joinUninterruptibly(writer);
+        }
+        if (!Validations.isNull(sender.error)){
+            throw rethrow(sender.error);
+        }
+    }
+
+    /**
+     * Parsing stage: reads the actions from the input file and puts them to the queue in batches.
+     * <br> The end of the queue is always marked, so the executing stage does not wait for a parser that failed.
+     * @param inputFile An {@code InputIO} of the input file.
+     * @param actionQueue A {@code BlockingQueue} for the action batches.
+     * @param receiver The {@code ActionReceiver} that is informed if reading the input file fails.
+     */
+    private static void parse(InputIO inputFile, BlockingQueue<ArrayList<Action>> actionQueue, ActionReceiver receiver){
+        boolean interrupted = false;
+        try (Stream<Action> actions = inputFile.streamActions()){
+            ArrayList<Action> batch = new ArrayList<>(BATCH_SIZE);
+            Iterator<Action> iterator = actions.iterator();
+            while (iterator.hasNext()){
+                batch.add(iterator.next());
+                if (batch.size() == BATCH_SIZE){
+                    actionQueue.put(batch);
+                    batch = new ArrayList<>(BATCH_SIZE);
+                }
+            }
+            if (!batch.isEmpty()){
+                actionQueue.put(batch);
+            }
+        } catch (InterruptedException e){
+            interrupted = true;
+        } catch (Throwable e){
+            receiver.error = e;
+        } finally {
+            if (interrupted){
+                // The executing stage is stopped, so the queue may be full and nobody takes from it.
+                actionQueue.offer(endOfQueue());
+            }else{
+                putUninterruptibly(actionQueue, endOfQueue());
+            }
+        }
+    }
+
+    /**
+     * Writing stage: takes the response batches from the queue and writes them to the output file.
+     * <br> A batch contains the responses as {@code String} and the changes of the house time as {@code Long}.
+     * <br> If writing fails, the error is given to the {@code ResponseSender} and the queue is drained until its end,
+     * so the executing stage does not wait for a full queue.
+     * @param responseQueue A {@code BlockingQueue} for the response batches.
+     * @param outputFile An {@code OutputIO} of the output file.
+     * @param sender The {@code ResponseSender} that is informed if writing the output file fails.
+     */
+    private static void write(BlockingQueue<ArrayList<Object>> responseQueue, OutputIO outputFile, ResponseSender sender){
+        while (true){
+            ArrayList<Object> batch = takeUninterruptibly(responseQueue);
+            if (batch == END_OF_QUEUE){
+                return;
+            }
+            if (!Validations.isNull(sender.error)){
+                continue;
+            }
+            try {
+                for (Object item : batch){
+                    if (item instanceof Long){
+                        outputFile.advanceTime((Long) item);
+                    }else{
+                        outputFile.write((String) item);
+                    }
+                }
+            } catch (Throwable e){
+                sender.error = e;
+            }
+        }
+    }
+
+    /**
+     * Converts an error of another stage to an unchecked exception that can be thrown on the executing stage.
+     * @param error A {@code Throwable} that occurred on another stage.
+     * @return The error itself if it is unchecked, otherwise an {@code IllegalStateException} that wraps it.
+     */
+    private static RuntimeException rethrow(Throwable error){
+        if (error instanceof Error){
+            throw (Error) error;
+        }
+        if (error instanceof RuntimeException){
+            return (RuntimeException) error;
+        }
+        return new IllegalStateException(error);
+    }
+
+    /**
+     * Gets the {@link Pipeline#END_OF_QUEUE} batch as a batch of the given type.
+     * @param <T> Type of the items in the batch.
+     * @return The end of queue batch.
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> ArrayList<T> endOfQueue(){
+        return (ArrayList<T>) END_OF_QUEUE;
+    }
+
+    /**
+     * Puts a batch to the queue. Waits until there is a space even if the thread is interrupted.
+     * @param queue A {@code BlockingQueue}.
+     * @param batch A batch.
+     * @param <T> Type of the items in the batch.
+     */
+    private static <T> void putUninterruptibly(BlockingQueue<ArrayList<T>> queue, ArrayList<T> batch){
+        boolean interrupted = false;
+        while (true){
+            try {
+                queue.put(batch);
+                break;
+            } catch (InterruptedException e){
+                interrupted = true;
+            }
+        }
+        if (interrupted){
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Takes a batch from the queue. Waits until there is a batch even if the thread is interrupted.
+     * @param queue A {@code BlockingQueue}.
+     * @param <T> Type of the items in the batch.
+     * @return A batch.
+     */
+    private static <T> ArrayList<T> takeUninterruptibly(BlockingQueue<ArrayList<T>> queue){
+        boolean interrupted = false;
+        try {
+            while (true){
+                try {
+                    return queue.take();
+                } catch (InterruptedException e){
+                    interrupted = true;
+                }
+            }
+        } finally {
+            if (interrupted){
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Waits until the thread finishes even if the current thread is interrupted.
+     * @param thread A {@code Thread}.
+     */
+    private static void joinUninterruptibly(Thread thread){
+        boolean interrupted = false;
+        while (thread.isAlive()){
+            try {
+                thread.join();
+            } catch (InterruptedException e){
+                interrupted = true;
+            }
+        }
+        if (interrupted){
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * The {@code ActionReceiver} class gives the actions from the parsing stage in order.
+     */
+    private static class ActionReceiver implements Iterator<Action> {
+        /**
+         * The queue of the action batches.
+         */
+        private final BlockingQueue<ArrayList<Action>> queue;
+        /**
+         * The current batch.
+         */
+        private ArrayList<Action> batch = new ArrayList<>();
+        /**
+         * Index of the next action in the current batch.
+         */
+        private int index = 0;
+        /**
+         * The error that occurred while reading the input file.
+         */
+        private volatile Throwable error;
+
+        /**
+         * Creates an {@code ActionReceiver} for a queue.
+         * @param queue A {@code BlockingQueue} for the action batches.
+         */
+        ActionReceiver(BlockingQueue<ArrayList<Action>> queue){
+            this.queue = queue;
+        }
+
+        @Override
+        public boolean hasNext(){
+            while (index == batch.size()){
+                if (batch == END_OF_QUEUE){
+                    if (!Validations.isNull(error)){
+                        throw rethrow(error);
+                    }
+                    return false;
+                }
+                batch = takeUninterruptibly(queue);
+                index = 0;
+            }
+            return true;
+        }
+
+        @Override
+        public Action next(){
+            if (!hasNext()){
+                throw new NoSuchElementException();
+            }
+            return batch.get(index++);
+        }
+    }
+
+    /**
+     * The {@code ResponseSender} class gives the responses and the changes of the house time
+     * to the writing stage in batches.
+     */
+    private static class ResponseSender implements ResponseSink {
+        /**
+         * The queue of the response batches.
+         */
+        private final BlockingQueue<ArrayList<Object>> queue;
+        /**
+         * The current batch.
+         */
+        private ArrayList<Object> batch = new ArrayList<>(BATCH_SIZE);
+        /**
+         * The last house time that sent.
+         */
+        private long lastTime = TimeFormat.NONE;
+        /**
+         * The error that occurred while writing the output file.
+         */
+        private volatile Throwable error;
+
+        /**
+         * Creates a {@code ResponseSender} for a queue.
+         * @param queue A {@code BlockingQueue} for the response batches.
+         */
+        ResponseSender(BlockingQueue<ArrayList<Object>> queue){
+            this.queue = queue;
+        }
+
+        /**
+         * Adds a response to the current batch and sends the batch if it is full.
+         * @param response A {@code String}.
+         */
+        @Override
+        public void write(String response){
+            add(response);
+        }
+
+        /**
+         * Adds the house time to the current batch if it is changed.
+         * @param time A {@code long} as epoch milliseconds that represents the time of the house.
+         */
+        @Override
+        public void advanceTime(long time){
+            if (Validations.isTime(time) && time != lastTime){
+                lastTime = time;
+                add(time);
+            }
+        }
+
+        /**
+         * Adds an item to the current batch and sends the batch if it is full.
+         * @param item A response or a house time.
+         */
+        private void add(Object item){
+            if (!Validations.isNull(error)){
+                throw rethrow(error);
+            }
+            batch.add(item);
+            if (batch.size() == BATCH_SIZE){
+                putUninterruptibly(queue, batch);
+                batch = new ArrayList<>(BATCH_SIZE);
+            }
+        }
+
+        /**
+         * Sends the remaining responses and marks the end of the queue.
+         */
+        void finish(){
+            if (!batch.isEmpty()){
+                putUninterruptibly(queue, batch);
+            }
+            putUninterruptibly(queue, endOfQueue());
+        }
+    }
+}
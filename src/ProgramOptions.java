@@ -0,0 +1,329 @@
+/**
+ * The {@code ProgramOptions} class keeps the optional console arguments of the program.
+ * <br> Options are given after the input and output file paths in {@code --name=value} format.
+ * <br> Example: {@code java Main input.txt output.txt --flush=bytes:65536}
+ * @see Main
+ */
+public class ProgramOptions {
+    /**
+     * Decides when the outputs are flushed to the output file.
+     * @see OutputIO.FlushPolicy
+     */
+    public OutputIO.FlushPolicy flushPolicy = OutputIO.FlushPolicy.EVERY_WRITE;
+    /**
+     * Size as bytes or time as milliseconds for the {@link ProgramOptions#flushPolicy}.
+     */
+    public long flushThreshold = 0;
+    /**
+     * If it is true, parsing, executing and writing run on different threads.
+     * @see Pipeline
+     */
+    public boolean pipeline = false;
+    /**
+     * If it is true, text input files are parsed in parallel.
+     * @see ParallelActionParser
+     */
+    public boolean parallelParse = false;
+    /**
+     * Number of the worker threads that execute houses at the same time.
+     * @see HouseRunner
+     */
+    public int threads = Runtime.getRuntime().availableProcessors();
+    /**
+     * Decides when the output continues with a new segment file.
+     * @see OutputIO.SegmentPolicy
+     */
+    public OutputIO.SegmentPolicy segmentPolicy = OutputIO.SegmentPolicy.NONE;
+    /**
+     * Maximum number of bytes in a segment for {@link OutputIO.SegmentPolicy#SIZE}.
+     */
+    public long segmentSize = 0;
+    /**
+     * If it is true, finished output segments are compressed with gzip.
+     */
+    public boolean compressSegments = false;
+    /**
+     * The scheduler of the workloads of each house.
+     * @see WorkloadScheduler.Type
+     */
+    public WorkloadScheduler.Type schedulerType = WorkloadScheduler.Type.ORDERED;
+    /**
+     * If it is true, the time of each house moves with the wall clock.
+     * @see RealTimeClock
+     */
+    public boolean realTime = false;
+    /**
+     * Simulated time per wall clock time for the real-time clock.
+     */
+    public double clockSpeed = 1;
+    /**
+     * If it is true, large groups of switch workloads that have the same executing time are fired in parallel.
+     * @see SmartDeviceController
+     */
+    public boolean parallelFiring = false;
+    /**
+     * The path of the write-ahead journal of the actions. It is null if the actions are not journaled.
+     * @see CommandJournal
+     */
+    public String journalPath = null;
+    /**
+     * Decides when the journaled actions are forced to the disk.
+     * @see CommandJournal.SyncPolicy
+     */
+    public CommandJournal.SyncPolicy syncPolicy = CommandJournal.SyncPolicy.INTERVAL;
+    /**
+     * Number of actions or time as milliseconds for the {@link ProgramOptions#syncPolicy}.
+     */
+    public long syncThreshold = 10;
+    /**
+     * Number of the journaled actions between two checkpoints. It is 0 if checkpoints are written only after restores.
+     */
+    public long checkpointInterval = 100000;
+
+    /**
+     * Creates a {@code ProgramOptions} from console arguments.
+     * @param args Console arguments.
+     * @param start An {@code int} represents the index of the first option in args.
+     * @throws IllegalArgumentException If there is an unknown or malformed option.
+     */
+    public ProgramOptions(String[] args, int start){
+        for (int i = start; i < args.length; i++){
+            parseOption(args[i]);
+        }
+        if (journalPath != null && realTime){
+            throw new IllegalArgumentException("Journal can not be used with the real-time clock");
+        }
+    }
+
+    /**
+     * Parses an option and sets the related property.
+     * @param option A {@code String} in {@code --name=value} format.
+     * @throws IllegalArgumentException If the option is unknown or malformed.
+     */
+    private void parseOption(String option){
+        int separator = option.indexOf('=');
+        if (!option.startsWith("--") || separator < 0){
+            throw new IllegalArgumentException("Unknown option: " + option);
+        }
+        String name = option.substring(2, separator);
+        String value = option.substring(separator + 1);
+        switch (name){
+            case "flush":
+                parseFlush(value);
+                break;
+            case "mode":
+                parseMode(value);
+                break;
+            case "parse":
+                parseParse(value);
+                break;
+            case "threads":
+                threads = (int) parsePositive(value);
+                break;
+            case "segment":
+                parseSegment(value);
+                break;
+            case "compress":
+                parseCompress(value);
+                break;
+            case "scheduler":
+                parseScheduler(value);
+                break;
+            case "clock":
+                parseClock(value);
+                break;
+            case "fire":
+                parseFire(value);
+                break;
+            case "journal":
+                journalPath = value;
+                break;
+            case "sync":
+                parseSync(value);
+                break;
+            case "checkpoint":
+                checkpointInterval = value.equals("restore") ? 0 : parsePositive(value);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown option: " + option);
+        }
+    }
+
+    /**
+     * Parses the value of the {@code --flush} option.
+     * <br> Values: {@code command}, {@code end}, {@code bytes:N}, {@code ms:N}
+     * <br> {@code ms:N} is also checked on a background thread, so it flushes during a pause.
+     * @see OutputIO.FlushPolicy#INTERVAL
+     * @param value A {@code String} that is the option value.
+     * @throws IllegalArgumentException If the value is malformed.
+     */
+    private void parseFlush(String value){
+        if (value.equals("command")){
+            flushPolicy = OutputIO.FlushPolicy.EVERY_WRITE;
+        } else if (value.equals("end")){
+            flushPolicy = OutputIO.FlushPolicy.END;
+        } else if (value.startsWith("bytes:")){
+            flushPolicy = OutputIO.FlushPolicy.BYTES;
+            flushThreshold = parsePositive(value.substring(6));
+        } else if (value.startsWith("ms:")){
+            flushPolicy = OutputIO.FlushPolicy.INTERVAL;
+            flushThreshold = parsePositive(value.substring(3));
+        } else {
+            throw new IllegalArgumentException("Unknown flush policy: " + value);
+        }
+    }
+
+    /**
+     * Parses the value of the {@code --mode} option.
+     * <br> Values: {@code sequential}, {@code pipeline}
+     * @param value A {@code String} that is the option value.
+     * @throws IllegalArgumentException If the value is malformed.
+     */
+    private void parseMode(String value){
+        if (value.equals("sequential")){
+            pipeline = false;
+        } else if (value.equals("pipeline")){
+            pipeline = true;
+        } else {
+            throw new IllegalArgumentException("Unknown mode: " + value);
+        }
+    }
+
+    /**
+     * Parses the value of the {@code --parse} option.
+     * <br> Values: {@code sequential}, {@code parallel}
+     * @param value A {@code String} that is the option value.
+     * @throws IllegalArgumentException If the value is malformed.
+     */
+    private void parseParse(String value){
+        if (value.equals("sequential")){
+            parallelParse = false;
+        } else if (value.equals("parallel")){
+            parallelParse = true;
+        } else {
+            throw new IllegalArgumentException("Unknown parse mode: " + value);
+        }
+    }
+
+    /**
+     * Parses the value of the {@code --segment} option.
+     * <br> Values: {@code none}, {@code bytes:N}, {@code day}
+     * @param value A {@code String} that is the option value.
+     * @throws IllegalArgumentException If the value is malformed.
+     */
+    private void parseSegment(String value){
+        if (value.equals("none")){
+            segmentPolicy = OutputIO.SegmentPolicy.NONE;
+        } else if (value.equals("day")){
+            segmentPolicy = OutputIO.SegmentPolicy.DAY;
+        } else if (value.startsWith("bytes:")){
+            segmentPolicy = OutputIO.SegmentPolicy.SIZE;
+            segmentSize = parsePositive(value.substring(6));
+        } else {
+            throw new IllegalArgumentException("Unknown segment policy: " + value);
+        }
+    }
+
+    /**
+     * Parses the value of the {@code --compress} option.
+     * <br> Values: {@code none}, {@code gzip}
+     * @param value A {@code String} that is the option value.
+     * @throws IllegalArgumentException If the value is malformed.
+     */
+    private void parseCompress(String value){
+        if (value.equals("none")){
+            compressSegments = false;
+        } else if (value.equals("gzip")){
+            compressSegments = true;
+        } else {
+            throw new IllegalArgumentException("Unknown compression: " + value);
+        }
+    }
+
+    /**
+     * Parses the value of the {@code --scheduler} option.
+     * <br> Values: {@code ordered}, {@code wheel}
+     * @param value A {@code String} that is the option value.
+     * @throws IllegalArgumentException If the value is malformed.
+     */
+    private void parseScheduler(String value){
+        if (value.equals("ordered")){
+            schedulerType = WorkloadScheduler.Type.ORDERED;
+        } else if (value.equals("wheel")){
+            schedulerType = WorkloadScheduler.Type.WHEEL;
+        } else {
+            throw new IllegalArgumentException("Unknown scheduler: " + value);
+        }
+    }
+
+    /**
+     * Parses the value of the {@code --fire} option.
+     * <br> Values: {@code sequential}, {@code parallel}
+     * @param value A {@code String} that is the option value.
+     * @throws IllegalArgumentException If the value is malformed.
+     */
+    private void parseFire(String value){
+        if (value.equals("sequential")){
+            parallelFiring = false;
+        } else if (value.equals("parallel")){
+            parallelFiring = true;
+        } else {
+            throw new IllegalArgumentException("Unknown fire mode: " + value);
+        }
+    }
+
+    /**
+     * Parses the value of the {@code --sync} option.
+     * <br> Values: {@code command}, {@code records:N}, {@code ms:N}, {@code none}
+     * @param value A {@code String} that is the option value.
+     * @throws IllegalArgumentException If the value is malformed.
+     */
+    private void parseSync(String value){
+        if (value.equals("command")){
+            syncPolicy = CommandJournal.SyncPolicy.EVERY_COMMAND;
+        } else if (value.equals("none")){
+            syncPolicy = CommandJournal.SyncPolicy.NONE;
+        } else if (value.startsWith("records:")){
+            syncPolicy = CommandJournal.SyncPolicy.RECORDS;
+            syncThreshold = parsePositive(value.substring(8));
+        } else if (value.startsWith("ms:")){
+            syncPolicy = CommandJournal.SyncPolicy.INTERVAL;
+            syncThreshold = parsePositive(value.substring(3));
+        } else {
+            throw new IllegalArgumentException("Unknown sync policy: " + value);
+        }
+    }
+
+    /**
+     * Parses the value of the {@code --clock} option.
+     * <br> Values: {@code simulated}, {@code realtime}, {@code realtime:SPEED}
+     * @param value A {@code String} that is the option value.
+     * @throws IllegalArgumentException If the value is malformed.
+     */
+    private void parseClock(String value){
+        if (value.equals("simulated")){
+            realTime = false;
+        } else if (value.equals("realtime")){
+            realTime = true;
+            clockSpeed = 1;
+        } else if (value.startsWith("realtime:")){
+            realTime = true;
+            clockSpeed = parsePositive(value.substring(9));
+        } else {
+            throw new IllegalArgumentException("Unknown clock: " + value);
+        }
+    }
+
+    /**
+     * Parses a positive number from an option value.
+     * @param str A {@code String}.
+     * @return A positive {@code long}.
+     * @throws IllegalArgumentException If the value is not a positive integer.
+     */
+    static long parsePositive(String str){
+        if (!Validations.isCanInt(str) || !Validations.isPositive(Long.parseLong(str))){
+            throw new IllegalArgumentException("Option value must be a positive integer: " + str);
+        }
+        return Long.parseLong(str);
+    }
+}
@@ -0,0 +1,250 @@
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>
+ *   The {@code RealTimeClock} class moves the time of a house with the wall clock at a speed,
+ *   so the workloads run on time while the commands are still coming.
+ * </p>
+ * <p>
+ *   The clock starts when the initial time of the house is set. The time of the house is
+ *   {@code anchor time + elapsed wall time * speed}. Commands that move the time forward, such as
+ *   {@code SetTime} and {@code SkipMinutes}, move the anchor too.
+ * </p>
+ * <p>
+ *   A timer thread wakes up shortly before the next workload and waits the rest of the time actively,
+ *   so the workloads run with low jitter. Commands and the timer thread use the house one by one.
+ *   How late each workload runs according to the wall clock is measured.
+ * </p>
+ * @see House#clock
+ * @see Main#execute(java.util.Iterator, ResponseSink)
+ */
+public class RealTimeClock {
+    /**
+     * The timer thread wakes up this many nanoseconds before a workload and waits the rest actively.
+     */
+    private static final long SPIN_NANOS = TimeUnit.MICROSECONDS.toNanos(500);
+
+    /**
+     * The house that the clock moves.
+     */
+    private final House house;
+    /**
+     * Simulated milliseconds that pass in a wall clock millisecond.
+     */
+    private final double speed;
+    /**
+     * The timer thread that runs the workloads.
+     */
+    private final ScheduledExecutorService timer;
+    /**
+     * The next timer task. It is null if there is no scheduled workload.
+     */
+    private ScheduledFuture<?> nextTask;
+    /**
+     * Shows the clock is started with the initial time of the house.
+     */
+    private boolean started = false;
+    /**
+     * Shows the clock is stopped.
+     */
+    private boolean stopped = false;
+    /**
+     * The wall clock time of the anchor as {@link System#nanoTime()}.
+     */
+    private long anchorWall;
+    /**
+     * The house time of the anchor as milliseconds.
+     */
+    private long anchorTime;
+
+    /**
+     * Number of the workload times that reached.
+     */
+    private long firedCount = 0;
+    /**
+     * Sum of the lateness of the workload times as nanoseconds.
+     */
+    private long totalLateness = 0;
+    /**
+     * Maximum lateness of a workload time as nanoseconds.
+     */
+    private long maxLateness = 0;
+
+    /**
+     * Creates a {@code RealTimeClock} for a house.
+     * @param house A {@code House} that the clock moves.
+     * @param speed A {@code double} that represents simulated time per wall clock time, such as 60 for a minute per second.
+     */
+    public RealTimeClock(House house, double speed){
+        this.house = house;
+        this.speed = speed;
+        this.timer = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "real-time-clock");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Moves the time of the house to the wall clock and executes an action.
+     * Then schedules the timer for the next workload.
+     * @param action An {@code Action}.
+     * @return An {@code Object} that contains response of the action.
+     * @throws DeviceExceptions If there is an illegal {@code Action}.
+     * @see SmartDeviceController#actionHandler(Action)
+     */
+    public synchronized Object execute(Action action) throws DeviceExceptions {
+        catchUp();
+        try {
+            return SmartDeviceController.actionHandler(action);
+        } finally {
+            moveAnchor();
+            scheduleNext();
+        }
+    }
+
+    /**
+     * Stops the timer thread. The time of the house does not move after it.
+     */
+    public void stop(){
+        synchronized (this){
+            stopped = true;
+            if (!Validations.isNull(nextTask)){
+                nextTask.cancel(false);
+            }
+        }
+        timer.shutdown();
+        try {
+            timer.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Gets the time of the house. It is read under the lock of the clock, because the timer thread changes it.
+     * @return A {@code long} as epoch milliseconds, or {@link TimeFormat#NONE} if the time is not set.
+     * @see SmartDeviceController#getTime()
+     */
+    public synchronized long getTime(){
+        return SmartDeviceController.getTime();
+    }
+
+    /**
+     * Gets the lateness statistics of the workload times.
+     * @return A {@code String} that contains the number of workload times, average and maximum lateness.
+     */
+    public synchronized String getStatsText(){
+        double average = firedCount == 0 ? 0 : (double) totalLateness / firedCount / 1_000_000;
+        return "Clock speed is " + String.format("%.2f", speed) + "x and " + firedCount + " workload times are reached. " +
+                "Average lateness is " + String.format("%.3f", average) + " ms and maximum lateness is " +
+                String.format("%.3f", maxLateness / 1_000_000.0) + " ms.";
+    }
+
+    /**
+     * Runs on the timer thread: waits until the wall clock time of the workload and moves the time of the house.
+     * @param wallTime A {@code long} that is the wall clock time of the workload as {@link System#nanoTime()}.
+     */
+    private void fire(long wallTime){
+        while (System.nanoTime() < wallTime){
+            Thread.onSpinWait();
+        }
+        House.bind(house);
+        try {
+            synchronized (this){
+                if (stopped){
+                    return;
+                }
+                catchUp();
+                scheduleNext();
+            }
+        } finally {
+            House.unbind();
+        }
+    }
+
+    /**
+     * Moves the time of the house to the wall clock time as whole seconds and runs the workloads until it in order.
+     * The lateness of each workload time is recorded.
+     */
+    private void catchUp(){
+        if (!started){
+            return;
+        }
+        long now = System.nanoTime();
+        long target = Math.floorDiv(timeAt(now), 1000L) * 1000L;
+        long nextTime = SmartDeviceController.getNextWorkloadTime();
+        while (nextTime != WorkloadScheduler.NO_TIME && nextTime <= target){
+            recordLateness(now - wallTimeOf(nextTime));
+            SmartDeviceController.advanceTime(nextTime);
+            nextTime = SmartDeviceController.getNextWorkloadTime();
+        }
+        SmartDeviceController.advanceTime(target);
+    }
+
+    /**
+     * Starts the clock when the initial time is set and moves the anchor if a command moved the time
+     * of the house after the wall clock time.
+     */
+    private void moveAnchor(){
+        long time = SmartDeviceController.getTime();
+        if (!Validations.isTime(time)){
+            return;
+        }
+        long now = System.nanoTime();
+        if (!started || time > timeAt(now)){
+            anchorWall = now;
+            anchorTime = time;
+            started = true;
+        }
+    }
+
+    /**
+     * Schedules the timer for the next workload of the house.
+     */
+    private void scheduleNext(){
+        if (!Validations.isNull(nextTask)){
+            nextTask.cancel(false);
+            nextTask = null;
+        }
+        long nextTime = SmartDeviceController.getNextWorkloadTime();
+        if (!started || stopped || nextTime == WorkloadScheduler.NO_TIME){
+            return;
+        }
+        long wallTime = wallTimeOf(nextTime);
+        long delay = Math.max(0, wallTime - System.nanoTime() - SPIN_NANOS);
+        nextTask = timer.schedule(() -> fire(wallTime), delay, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Records the lateness of a workload time.
+     * @param lateness A {@code long} that represents the lateness as nanoseconds.
+     */
+    private void recordLateness(long lateness){
+        lateness = Math.max(0, lateness);
+        firedCount++;
+        totalLateness += lateness;
+        maxLateness = Math.max(maxLateness, lateness);
+    }
+
+    /**
+     * Converts a wall clock time to a house time.
+     * @param wallTime A {@code long} as {@link System#nanoTime()}.
+     * @return A {@code long} that is the house time as milliseconds.
+     */
+    private long timeAt(long wallTime){
+        return anchorTime + (long) ((wallTime - anchorWall) * speed / 1_000_000);
+    }
+
+    /**
+     * Converts a house time to a wall clock time.
+     * @param time A {@code long} that is the house time as milliseconds.
+     * @return A {@code long} as {@link System#nanoTime()}.
+     */
+    private long wallTimeOf(long time){
+        return anchorWall + (long) ((time - anchorTime) * 1_000_000 / speed);
+    }
+}
@@ -0,0 +1,20 @@
+/**
+ * The {@code ResponseSink} interface takes the responses of the executed actions in order.
+ * @see Main#execute(java.util.Iterator, ResponseSink)
+ * @see OutputIO
+ */
+public interface ResponseSink {
+    /**
+     * Takes the response of an action.
+     * @param response A {@code String} that is the response.
+     */
+    void write(String response);
+
+    /**
+     * Informs the sink about the time of the house before the response of an action is written.
+     * @param time A {@code long} as epoch milliseconds that represents the time of the house.
+     * It is {@link TimeFormat#NONE} before the initial time is set.
+     */
+    default void advanceTime(long time){
+    }
+}
@@ -0,0 +1,77 @@
+/**
+ * <p>
+ *   The {@code Routine} class is a recurring switch schedule of a {@code SmartDevice}.
+ *   It switches the device to a status at a first time and then again after every period.
+ * </p>
+ * Only the next occurrence of a routine is scheduled as a workload.
+ * When it is executed, the same workload is moved to the following occurrence, so a routine never keeps more than one workload.
+ * @see SmartDeviceController#addRoutine(java.util.ArrayList)
+ * @see WorkloadStore#ROUTINE
+ */
+public class Routine {
+    /**
+     * The device of the routine.
+     */
+    public final SmartDevice device;
+    /**
+     * The status that the device is switched to.
+     */
+    public final boolean status;
+    /**
+     * Minutes between two occurrences.
+     */
+    public final int periodMinutes;
+    /**
+     * The handle of the workload of the next occurrence.
+     * @see WorkloadStore
+     */
+    private final int workload;
+
+    /**
+     * Creates a {@code Routine} and the workload of its first occurrence in the store of the current house.
+     * @param device A {@code SmartDevice} that is switched.
+     * @param firstTime A {@code long} as epoch milliseconds that represents the first occurrence.
+     * @param periodMinutes An {@code int} that represents minutes between two occurrences.
+     * @param status A {@code boolean} that is the status that the device is switched to.
+     */
+    public Routine(SmartDevice device, long firstTime, int periodMinutes, boolean status){
+        this.device = device;
+        this.status = status;
+        this.periodMinutes = periodMinutes;
+        this.workload = House.current().workloads.allocate(
+                firstTime, device.getId(), WorkloadStore.ROUTINE, status ? 1 : 0, this);
+    }
+
+    /**
+     * Creates a {@code Routine} of a snapshot that keeps its workload.
+     * @param workload An {@code int} that is the handle of the workload of the next occurrence.
+     * @param device A {@code SmartDevice} that is switched.
+     * @param periodMinutes An {@code int} that represents minutes between two occurrences.
+     * @param status A {@code boolean} that is the status that the device is switched to.
+     * @see HouseSnapshot
+     */
+    Routine(int workload, SmartDevice device, int periodMinutes, boolean status){
+        this.device = device;
+        this.status = status;
+        this.periodMinutes = periodMinutes;
+        this.workload = workload;
+    }
+
+    /**
+     * Gets the workload of the next occurrence.
+     * @return An {@code int} that is the handle of the workload.
+     */
+    public int getWorkload(){
+        return workload;
+    }
+
+    /**
+     * Moves the workload to the occurrence after the current one.
+     * @return An {@code int} that is the handle of the workload. It must be scheduled again.
+     */
+    public int next(){
+        WorkloadStore workloads = House.current().workloads;
+        workloads.reschedule(workload, workloads.getTime(workload) + (long) 1000*60*periodMinutes);
+        return workload;
+    }
+}
@@ -0,0 +1,136 @@
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumSet;
+
+/**
+ * <p>
+ *   The {@code ScheduledAction} class is a device command that will be executed later by a workload.
+ * </p>
+ * The command is executed with the current name of the device, so it still works if the device is renamed.
+ * Each device keeps its scheduled actions in a timeline in order of their executing times.
+ * @see SmartDeviceController#scheduleAction(ArrayList)
+ * @see SmartDevice#getScheduledActions()
+ * @see WorkloadStore#ACTION
+ */
+public class ScheduledAction {
+    /**
+     * Orders the scheduled actions by their executing times and then by their ids.
+     */
+    public static final Comparator<ScheduledAction> ORDER =
+            Comparator.comparingLong((ScheduledAction action) -> action.time).thenComparingLong(action -> action.id);
+
+    /**
+     * Commands that can be scheduled. Their first parameter is the device name.
+     */
+    private static final EnumSet<Command> SCHEDULABLE = EnumSet.of(
+            Command.SWITCH, Command.PLUG_IN, Command.PLUG_OUT, Command.SET_KELVIN, Command.SET_BRIGHTNESS,
+            Command.SET_COLOR, Command.SET_COLOR_CODE, Command.SET_WHITE);
+
+    /**
+     * The command that will be executed.
+     */
+    public final Command command;
+    /**
+     * Parameters of the command after the device name.
+     */
+    public final ArrayList<String> arguments;
+    /**
+     * The handle of the workload of the action.
+     * @see WorkloadStore
+     */
+    public final int workload;
+    /**
+     * The id of the workload. It is the id of the scheduled action.
+     */
+    public final long id;
+    /**
+     * The executing time as epoch milliseconds.
+     */
+    public final long time;
+
+    /**
+     * Creates a {@code ScheduledAction} and its workload in the store of the current house.
+     * @param device A {@code SmartDevice} that is the target of the command.
+     * @param time A {@code long} as epoch milliseconds that represents when the command will execute.
+     * @param command A {@code Command} that will be executed.
+     * @param arguments An {@code ArrayList<String>} that contains the parameters after the device name.
+     */
+    public ScheduledAction(SmartDevice device, long time, Command command, ArrayList<String> arguments){
+        this.command = command;
+        this.arguments = arguments;
+        this.time = time;
+        House house = House.current();
+        this.workload = house.workloads.allocate(this.time, device.getId(), WorkloadStore.ACTION, 0, this);
+        this.id = house.workloads.getId(this.workload);
+        house.scheduledActions.put(this.id, this);
+    }
+
+    /**
+     * Creates a {@code ScheduledAction} of a snapshot that keeps its workload and id.
+     * It is added to the scheduled actions of the current house.
+     * @param workload An {@code int} that is the handle of the workload of the action.
+     * @param id A {@code long} that is the id of the workload.
+     * @param time A {@code long} as epoch milliseconds that represents when the command will execute.
+     * @param command A {@code Command} that will be executed.
+     * @param arguments An {@code ArrayList<String>} that contains the parameters after the device name.
+     * @see HouseSnapshot
+     */
+    ScheduledAction(int workload, long id, long time, Command command, ArrayList<String> arguments){
+        this.command = command;
+        this.arguments = arguments;
+        this.time = time;
+        this.workload = workload;
+        this.id = id;
+        House.current().scheduledActions.put(this.id, this);
+    }
+
+    /**
+     * Checks the command can be scheduled.
+     * @param command A {@code Command}. It can be null.
+     * @return If the command is a device command that can be scheduled, returns true.
+     */
+    public static boolean isSchedulable(Command command){
+        return !Validations.isNull(command) && SCHEDULABLE.contains(command);
+    }
+
+    /**
+     * Gets a scheduled action of the current house that is not executed yet.
+     * @param id A {@code long} that is the id of the action.
+     * @return A {@code ScheduledAction}, or null if there is not.
+     */
+    public static ScheduledAction getScheduledAction(long id){
+        return House.current().scheduledActions.get(id);
+    }
+
+    /**
+     * Removes a scheduled action from the current house.
+     * @param action A {@code ScheduledAction}.
+     */
+    public static void removeScheduledAction(ScheduledAction action){
+        House.current().scheduledActions.remove(action.id);
+    }
+
+    /**
+     * Executes the command for a device.
+     * @param device A {@code SmartDevice} that is the target of the command.
+     * @throws DeviceExceptions If the command fails.
+     */
+    public void run(SmartDevice device) throws DeviceExceptions {
+        ArrayList<String> values = new ArrayList<>(arguments.size() + 1);
+        values.add(device.name);
+        values.addAll(arguments);
+        command.execute(values);
+    }
+
+    /**
+     * Gets the command as text without the device name.
+     * @return A {@code String} such as {@code SetBrightness 50}.
+     */
+    public String getText(){
+        StringBuilder text = new StringBuilder(command.actionName);
+        for (String argument: arguments){
+            text.append(' ').append(argument);
+        }
+        return text.toString();
+    }
+}
@@ -1,5 +1,4 @@
 import java.util.ArrayList;
-import java.util.Date;
 
 /**
  * <p>
@@ -33,6 +32,7 @@ public class SmartCamera extends SmartDevice{
      */
     public void setFilledStorage(float filledStorage) {
         this.filledStorage = filledStorage;
+        invalidateDeviceInfo();
     }
 
     /**
@@ -47,6 +47,28 @@ public class SmartCamera extends SmartDevice{
         setStatus(status);
     }
 
+    /**
+     * Writes the properties of the {@code SmartCamera} to a snapshot.
+     * @param snapshot A {@code HouseSnapshot} that is being written.
+     */
+    @Override
+    void writeState(HouseSnapshot snapshot){
+        super.writeState(snapshot);
+        snapshot.putFloat(filledStorage);
+        snapshot.putFloat(megabyte);
+    }
+
+    /**
+     * Reads the properties of the {@code SmartCamera} from a snapshot.
+     * @param snapshot A {@code HouseSnapshot} that is being read.
+     */
+    @Override
+    void readState(HouseSnapshot snapshot){
+        super.readState(snapshot);
+        this.filledStorage = snapshot.getFloat();
+        this.megabyte = snapshot.getFloat();
+    }
+
     /**
      * Gets {@code SmartCamera} information.
      * @return A {@code String} that contains information about {@code SmartCamera}.
@@ -58,36 +80,73 @@ public class SmartCamera extends SmartDevice{
 
     /**
      * Turns on the {@code SmartCamera}.
-     * @param startTime A {@code Date} object that represents the time of turned on.
-     * @see Date
+     * @param startTime A {@code long} that represents the time of turned on.
      */
     @Override
-    public void on(Date startTime){
+    public void on(long startTime){
         setStatus(true);
         setStartTime(startTime);
     }
 
     /**
      * Turns off the {@code SmartCamera} and updates filled storage.
-     * @param stopTime A {@code Date} represents the time of turned off.
+     * @param stopTime A {@code long} represents the time of turned off.
      */
     @Override
-    public void off(Date stopTime){
+    public void off(long stopTime){
         setStatus(false);
         setStopTime(stopTime);
         updateStorage();
 
-        setStopTime(null);
-        setStartTime(null);
+        setStopTime(TimeFormat.NONE);
+        setStartTime(TimeFormat.NONE);
     }
 
     /**
      * Updates the filled storage of {@code SmartCamera}
+     * <br> Nothing is added if the camera does not have a start time.
      */
     private void updateStorage(){
-        long diff = this.stopTime.getTime()-this.startTime.getTime();
+        if (Validations.isTime(this.startTime) && Validations.isTime(this.stopTime)){
+            setFilledStorage(this.filledStorage + storageBetween(this.startTime, this.stopTime));
+        }
+    }
+
+    /**
+     * Calculates the storage that used between two times.
+     * @param startTime A {@code long} that represents the time when the camera starts recording.
+     * @param stopTime A {@code long} that represents the time when the camera stops recording.
+     * @return A {@code float} that represents the storage as megabytes.
+     */
+    private float storageBetween(long startTime, long stopTime){
+        long diff = stopTime-startTime;
         float minute = Utilities.millisecondToMinute(diff);
-        setFilledStorage(this.filledStorage + minute *this.megabyte);
+        return minute *this.megabyte;
+    }
+
+    /**
+     * Gets the used storage until a time including the current status.
+     * <br> The storage of the current status is calculated from the megabytes per minute and the time since
+     * the camera turned on, so it is not needed to update the camera while the time passes.
+     * @param time A {@code long} that represents the time of the query.
+     * @return A {@code float} that represents the storage as megabytes.
+     */
+    public float getStorage(long time){
+        if (!status || !Validations.isTime(this.startTime) || !Validations.isTime(time)){
+            return this.filledStorage;
+        }
+        return this.filledStorage + storageBetween(this.startTime, time);
+    }
+
+    /**
+     * Gets the used storage until a time as text.
+     * @param time A {@code long} that represents the time of the query.
+     * @return A {@code String} that keeps the used storage including the current status.
+     */
+    @Override
+    public String getConsumptionText(long time){
+        return "Smart Camera "+ this.name+ " has used " + String.format("%.2f",getStorage(time)) +" MB "+
+                "of storage so far (including current status).";
     }
 
     /**
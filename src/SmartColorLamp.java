@@ -23,6 +23,7 @@ public class SmartColorLamp extends SmartLamp {
     public void setColorCode(String colorCode) {
         this.colorCode = colorCode;
         this.kelvin = null;
+        invalidateDeviceInfo();
     }
 
     /**
@@ -34,6 +35,7 @@ public class SmartColorLamp extends SmartLamp {
     public void setKelvin(Integer kelvin){
         this.kelvin = kelvin;
         this.colorCode = null;
+        invalidateDeviceInfo();
     }
 
     /**
@@ -73,6 +75,26 @@ public class SmartColorLamp extends SmartLamp {
         setColor(colorCode, brightness);
     }
 
+    /**
+     * Writes the properties of the {@code SmartColorLamp} to a snapshot.
+     * @param snapshot A {@code HouseSnapshot} that is being written.
+     */
+    @Override
+    void writeState(HouseSnapshot snapshot){
+        super.writeState(snapshot);
+        snapshot.putString(colorCode);
+    }
+
+    /**
+     * Reads the properties of the {@code SmartColorLamp} from a snapshot.
+     * @param snapshot A {@code HouseSnapshot} that is being read.
+     */
+    @Override
+    void readState(HouseSnapshot snapshot){
+        super.readState(snapshot);
+        this.colorCode = snapshot.getString();
+    }
+
     /**
      * Gets {@code SmartColorLamp} information.
      * @return A {@code String} that contains information about {@code SmartColorLamp}.
@@ -7,25 +7,6 @@ import java.util.*;
  * </p>
  */
 public abstract class SmartDevice {
-    private static int idCounter = 0;
-    /**
-     * <p>
-     *     Contains all smart devices according to their id values.
-     * </p>
-     * <i>{@code Key -}</i> An {@code Integer} represents device id.
-     * <br>
-     * <i>{@code Value -}</i> A {@code SmartDevice} represents device.
-     */
-    private static Dictionary<Integer,SmartDevice> devices = new Hashtable<>();
-    /**
-     * <p>
-     *     Contains all smart device's ids according to their names.
-     * </p>
-     * <i>{@code Key -}</i> A {@code String} value represents device name.
-     * <br>
-     * <i>{@code Value -}</i> An {@code Integer} value represents device id.
-     */
-    public static Dictionary<String,Integer> deviceNames= new Hashtable<>();
     private int id;
     public String name;
     /**
@@ -37,18 +18,34 @@ public abstract class SmartDevice {
      */
     public boolean status = false;
     /**
-     * A {@code Date} object represents when device turns on.
+     * A {@code long} as epoch milliseconds represents when device turns on. It is {@link TimeFormat#NONE} if it is not set.
+     */
+    protected long startTime = TimeFormat.NONE;
+    /**
+     * A {@code long} as epoch milliseconds represents when device turns off. It is {@link TimeFormat#NONE} if it is not set.
+     */
+    protected long stopTime = TimeFormat.NONE;
+    /**
+     * The handle of the workload that controls {@link SmartDevice#status}, or {@link WorkloadStore#NONE}.
+     * @see WorkloadStore
+     */
+    public int switchTimeWorkload = WorkloadStore.NONE;
+    /**
+     * The cached result of {@link SmartDevice#getDeviceInfo()}.
+     * It is null when a property that is shown in the information is changed.
      */
-    protected Date startTime;
+    private String deviceInfo = null;
     /**
-     * A {@code Date} object represents when device turns off.
+     * Recurring switch schedules of the device.
+     * @see Routine
      */
-    protected Date stopTime;
+    public final ArrayList<Routine> routines = new ArrayList<>();
     /**
-     * An {@code Integer} value represents the workload id that controls {@link SmartDevice#status}.
-     * @see Workload
+     * The timeline of the scheduled actions of the device in order of their executing times.
+     * It is created with the first scheduled action.
+     * @see ScheduledAction
      */
-    public Integer switchTimeWorkloadId = null;
+    private TreeSet<ScheduledAction> scheduledActions = null;
 
     /**
      * Base constructor of the all smart devices.
@@ -57,10 +54,8 @@ public abstract class SmartDevice {
      */
     public SmartDevice(String name, Class cls){
         setName(name);
-        setId();
+        this.id = House.current().devices.add(this, name);
         setCls(cls);
-        devices.put(this.id, this);
-        deviceNames.put(this.name, this.id);
     }
 
     /**
@@ -77,19 +72,13 @@ public abstract class SmartDevice {
     public Class getCls() {
         return cls;
     }
-    /**
-     * Sets the {@link SmartDevice#id} property of {@code SmartDevice}.
-     */
-    private void setId() {
-        this.id = idCounter;
-        idCounter +=1;
-    }
     /**
      * Sets the {@link SmartDevice#status} property of {@code SmartDevice}.
      * @param status A {@code Boolean} object.
      */
     public void setStatus(Boolean status){
         this.status = status;
+        invalidateDeviceInfo();
     }
     /**
      * Sets the {@link SmartDevice#name} property of {@code SmartDevice}.
@@ -97,6 +86,15 @@ public abstract class SmartDevice {
      */
     public void setName(String name) {
         this.name = name;
+        invalidateDeviceInfo();
+    }
+    /**
+     * Sets the {@link SmartDevice#switchTimeWorkload} property of {@code SmartDevice}.
+     * @param switchTimeWorkload An {@code int} that is the workload handle or {@link WorkloadStore#NONE}.
+     */
+    public void setSwitchTimeWorkload(int switchTimeWorkload) {
+        this.switchTimeWorkload = switchTimeWorkload;
+        invalidateDeviceInfo();
     }
     /**
      * Sets the {@link SmartDevice#cls} property of {@code SmartDevice}.
@@ -107,32 +105,104 @@ public abstract class SmartDevice {
     }
     /**
      * Sets the {@link SmartDevice#startTime} property of {@code SmartDevice}.
-     * @param startTime A {@code Date} object that represents the time of turned on.
+     * @param startTime A {@code long} that represents the time of turned on.
      */
-    public void setStartTime(Date startTime) {
+    public void setStartTime(long startTime) {
         this.startTime = startTime;
     }
     /**
-     * @param stopTime A {@code Date} represents the time of turned off.
+     * @param stopTime A {@code long} represents the time of turned off.
      * Sets the {@link SmartDevice#stopTime} property of {@code SmartDevice} .
      */
-    public void setStopTime(Date stopTime) {
+    public void setStopTime(long stopTime) {
         this.stopTime = stopTime;
     }
 
+    /**
+     * Writes the properties of the {@code SmartDevice} to a snapshot. The name is written with the type of the device.
+     * @param snapshot A {@code HouseSnapshot} that is being written.
+     * @see HouseSnapshot
+     */
+    void writeState(HouseSnapshot snapshot){
+        snapshot.putBoolean(status);
+        snapshot.putLong(startTime);
+        snapshot.putLong(stopTime);
+        snapshot.putInt(switchTimeWorkload);
+    }
+
+    /**
+     * Reads the properties of the {@code SmartDevice} from a snapshot in the order of {@link SmartDevice#writeState(HouseSnapshot)}.
+     * @param snapshot A {@code HouseSnapshot} that is being read.
+     * @see HouseSnapshot
+     */
+    void readState(HouseSnapshot snapshot){
+        this.status = snapshot.getBoolean();
+        this.startTime = snapshot.getLong();
+        this.stopTime = snapshot.getLong();
+        this.switchTimeWorkload = snapshot.getInt();
+        invalidateDeviceInfo();
+    }
+
     /**
      * Gets information about the {@code SmartDevice}.
      * @return A {@code String} that keeps information about the device.
      */
     abstract String getDeviceInfo();
 
+    /**
+     * Gets the consumption of the {@code SmartDevice} until a time as text.
+     * @param time A {@code long} as epoch milliseconds that represents the time of the query.
+     * @return A {@code String} that keeps the consumption, or null if the device does not have a consumption.
+     */
+    public String getConsumptionText(long time){
+        return null;
+    }
+
+    /**
+     * Gets information about the {@code SmartDevice} from the cache.
+     * The information is created again only if it is changed after the last call.
+     * @return A {@code String} that keeps information about the device.
+     * @see SmartDevice#getDeviceInfo()
+     */
+    public String getCachedDeviceInfo(){
+        if (Validations.isNull(deviceInfo)){
+            deviceInfo = getDeviceInfo() + getNextActionText();
+        }
+        return deviceInfo;
+    }
+
+    /**
+     * Clears the cached information of the {@code SmartDevice}.
+     * It must be called when a property that is shown in the information is changed.
+     */
+    protected void invalidateDeviceInfo(){
+        this.deviceInfo = null;
+    }
+
     /**
      * Switches the status with new status.
-     * @param time A {@code Date} that represents switch time
+     * @param time A {@code long} that represents switch time
+     * @param newStatus A {@code boolean} that represents new status value.
+     */
+    public void switchStatus(long time, boolean newStatus){
+        setSwitchTimeWorkload(WorkloadStore.NONE);
+        if (newStatus){
+            on(time);
+            return;
+        }
+        off(time);
+    }
+    /**
+     * Switches the status for a {@code Routine} if the status is different from new status.
+     * <br> It does not change the {@link SmartDevice#switchTimeWorkload}.
+     * @param time A {@code long} that represents switch time
      * @param newStatus A {@code boolean} that represents new status value.
+     * @see Routine
      */
-    public void switchStatus(Date time, boolean newStatus){
-        this.switchTimeWorkloadId = null;
+    public void switchByRoutine(long time, boolean newStatus){
+        if (newStatus == this.status){
+            return;
+        }
         if (newStatus){
             on(time);
             return;
@@ -141,20 +211,18 @@ public abstract class SmartDevice {
     }
     /**
      * Turns on the {@code SmartDevice}.
-     * @param startTime A {@code Date} object that represents the time of turned on.
-     * @see Date
+     * @param startTime A {@code long} that represents the time of turned on.
      */
-    public void on(Date startTime){
+    public void on(long startTime){
         setStatus(true);
         setStartTime(startTime);
     }
 
     /**
      * Turns off the {@code SmartDevice}.
-     * @param stopTime A {@code Date} represents the time of turned off.
-     * @see Date
+     * @param stopTime A {@code long} represents the time of turned off.
      */
-    public void off(Date stopTime){
+    public void off(long stopTime){
         setStatus(false);
         setStopTime(stopTime);
     }
@@ -166,67 +234,117 @@ public abstract class SmartDevice {
         return this.status ? "on": "off";
     }
 
+    /**
+     * Gets the {@code SmartDevice}'s time of switch time workload.
+     * @return A {@code long} as epoch milliseconds.
+     * It must be called only if the device has a switch time workload.
+     * @see WorkloadStore
+     */
+    public long getSwitchTime(){
+        return House.current().workloads.getTime(this.switchTimeWorkload);
+    }
+
     /**
      * Gets the {@code SmartDevice}'s time of switch time workload as string.
      * @return A String that represents the device switch time.
-     * @see Workload
+     * @see WorkloadStore
      */
     protected String getSwitchTimeText(){
-        if (Validations.isNull(this.switchTimeWorkloadId)){
+        if (this.switchTimeWorkload == WorkloadStore.NONE){
             return "null";
         }
-        Workload workload = Workload.getWorkload(this.switchTimeWorkloadId);
-        return Utilities.convertDateToString(workload.time);
+        return Utilities.convertTimeToString(getSwitchTime());
+    }
+
+    /**
+     * Gets the next scheduled action of the {@code SmartDevice} as string.
+     * @return A String that represents the next action and its time. It is empty if there is no scheduled action.
+     * @see ScheduledAction
+     */
+    protected String getNextActionText(){
+        if (Validations.isNull(scheduledActions) || scheduledActions.isEmpty()){
+            return "";
+        }
+        ScheduledAction action = scheduledActions.first();
+        return " Its next scheduled action is " + action.getText() +
+                " at " + Utilities.convertTimeToString(action.time) + ".";
+    }
+
+    /**
+     * Adds a scheduled action to the timeline of the {@code SmartDevice}.
+     * @param action A {@code ScheduledAction}.
+     */
+    public void addScheduledAction(ScheduledAction action){
+        if (Validations.isNull(scheduledActions)){
+            scheduledActions = new TreeSet<>(ScheduledAction.ORDER);
+        }
+        scheduledActions.add(action);
+        invalidateDeviceInfo();
+    }
+
+    /**
+     * Removes a scheduled action from the timeline of the {@code SmartDevice}.
+     * @param action A {@code ScheduledAction}.
+     */
+    public void removeScheduledAction(ScheduledAction action){
+        if (!Validations.isNull(scheduledActions) && scheduledActions.remove(action)){
+            invalidateDeviceInfo();
+        }
+    }
+
+    /**
+     * Gets the scheduled actions of the {@code SmartDevice}.
+     * @return A {@code Collection<ScheduledAction>} in order of their executing times.
+     */
+    public Collection<ScheduledAction> getScheduledActions(){
+        if (Validations.isNull(scheduledActions)){
+            return Collections.emptyList();
+        }
+        return scheduledActions;
     }
 
     /**
      * Changes the name of the {@code SmartDevice}.
      * @param deviceName A {@code String} that represents name of the device that will change.
      * @param newName A {@code String} that represents new name of the device.
+     * @see DeviceRegistry#rename(String, String)
      */
     public static void changeDeviceName(String deviceName, String newName){
-        Integer id = deviceNames.get(deviceName);
-        deviceNames.remove(deviceName);
-        deviceNames.put(newName,id);
-        SmartDevice device = getDeviceById(id);
-        device.name = newName;
+        SmartDevice device = House.current().devices.rename(deviceName, newName);
+        device.setName(newName);
     }
 
     /**
      * Gets the {@code SmartDevice} with using its name.
      * @param name A {@code String} that represents the name of device.
-     * @return An {@code SmartDevice}.
+     * @return An {@code SmartDevice}, or null if there is not a device with the name.
      */
     public static SmartDevice getDeviceByName(String name){
-        Integer id = deviceNames.get(name);
-        return getDeviceById(id);
+        return House.current().devices.get(name);
     }
     /**
      * Gets the {@code SmartDevice} with using its id.
-     * @param id A {@code Integer} that represents the id of device.
-     * @return An {@code SmartDevice}.
+     * @param id An {@code int} that represents the id of device.
+     * @return An {@code SmartDevice}, or null if there is not a device with the id.
      */
-    public static SmartDevice getDeviceById(Integer id){
-        return devices.get(id);
+    public static SmartDevice getDeviceById(int id){
+        return House.current().devices.get(id);
     }
     /**
      * Removes the {@code SmartDevice} with using its name.
      * @param name A {@code String} that represents the name of device.
-     * @return An {@code SmartDevice} is the removed device.
+     * @return An {@code SmartDevice} is the removed device, or null if there is not a device with the name.
      */
     public static SmartDevice removeDeviceByName(String name){
-        Integer id = deviceNames.get(name);
-        return  removeDeviceById(id);
+        return House.current().devices.remove(name);
     }
     /**
-     * Removes the {@code SmartDevice} with using its id.
-     * @param id A {@code Integer} that represents the id of device.
-     * @return An {@code SmartDevice} is the removed device.
+     * Gets the {@code SmartDevice}s whose names start with a prefix.
+     * @param prefix A {@code String} that represents the start of the names.
+     * @return An {@code ArrayList<SmartDevice>} in order of the names.
+     * @see DeviceRegistry#findByPrefix(String)
      */
-    public static SmartDevice removeDeviceById(Integer id){
-        SmartDevice device = getDeviceById(id);
-        deviceNames.remove(device.name);
-        devices.remove(device.id);
-        return device;
+    public static ArrayList<SmartDevice> getDevicesByPrefix(String prefix){
+        return House.current().devices.findByPrefix(prefix);
     }
 }
@@ -1,79 +1,157 @@
+import java.io.IOException;
 import java.lang.reflect.Array;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Paths;
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 /**
  * The {@code SmartDeviceController} class is contains all methods for control all {@code SmartDevices}
  * @see SmartDevice
  */
 public class SmartDeviceController {
+    /**
+     * The least number of the workloads that have the same executing time to fire them in parallel.
+     * @see House#parallelFiring
+     */
+    private static final int PARALLEL_FIRING_THRESHOLD = 1024;
+    /**
+     * The pool that fires the switch workloads in parallel.
+     */
+    private static final ForkJoinPool pool = ForkJoinPool.commonPool();
 
     /**
-     * A reference time for control devices.
+     * Gets the reference time of the current house.
+     * @return A {@code long} as epoch milliseconds that represents the reference time for control devices,
+     * or {@link TimeFormat#NONE} before the initial time is set.
+     * @see House#time
      */
-    protected static Date time = null;
+    public static long getTime(){
+        return House.current().time;
+    }
+
     /**
-     * Contains workloads that will execute according to their executing times.
-     * <br>
-     * <i>{@code Key -}</i> An {@code Date} that represents executing time.
-     * <br>
-     *<i>{@code Value -}</i> A {@code ArrayList<Workload>} that represents workloads.
-     * @see Workload
+     * Sets the reference time of the current house.
+     * @param time A {@code long} as epoch milliseconds that represents the new reference time.
+     * @see House#time
      */
-    public static Dictionary<Date, ArrayList<Workload>> workloads = new Hashtable<>();
+    private static void setCurrentTime(long time){
+        House.current().time = time;
+    }
 
     /**
-     * Mapping dictionary for converting user {@code Action} names to method names.
-     * @see Action
+     * Moves the reference time of the current house forward and runs the workloads that executing times are passed.
+     * If the time is not after the current time, only the passed workloads run.
+     * @param time A {@code long} as epoch milliseconds that represents the new reference time.
+     * @see RealTimeClock
+     */
+    public static void advanceTime(long time){
+        if (time > getTime()){
+            setCurrentTime(time);
+        }
+        runPassedWorkloads();
+    }
+
+    /**
+     * Gets the executing time of the next workload of the current house.
+     * @return A {@code long} as epoch milliseconds, or {@link WorkloadScheduler#NO_TIME} if there is no scheduled workload.
+     */
+    public static long getNextWorkloadTime(){
+        return getScheduler().nextTime();
+    }
+
+    /**
+     * Gets the store of the workloads of the current house.
+     * @return A {@code WorkloadStore} that keeps the values of the workloads.
+     * @see House#workloads
+     */
+    private static WorkloadStore getWorkloads(){
+        return House.current().workloads;
+    }
+
+    /**
+     * Gets the scheduler of the workloads of the current house.
+     * @return A {@code WorkloadScheduler} that keeps the workloads in order of their executing times.
+     * @see House#scheduler
+     */
+    private static WorkloadScheduler getScheduler(){
+        return House.current().scheduler;
+    }
+
+    /**
+     * Factories of the {@code SmartDevice} types according to their type names.
+     * @see SmartDeviceController#add(ArrayList)
      */
-    public final static Dictionary<String, String> methodMapper = new Hashtable<>();
+    private final static Dictionary<String, DeviceFactory> deviceFactories = new Hashtable<>();
 
     static {
-        methodMapper.put("Add","add");
-        methodMapper.put("Remove","remove");
-        methodMapper.put("SkipMinutes","skipMinutes");
-        methodMapper.put("SetTime","setTime");
-        methodMapper.put("SetInitialTime","setInitialTime");
-        methodMapper.put("Switch","switchStatus");
-        methodMapper.put("ChangeName","changeName");
-        methodMapper.put("SetSwitchTime","setSwitchTime");
-        methodMapper.put("PlugIn","plugIn");
-        methodMapper.put("PlugOut","plugOut");
-        methodMapper.put("SetKelvin","setKelvin");
-        methodMapper.put("SetBrightness","setBrightness");
-        methodMapper.put("SetColor","setColor");
-        methodMapper.put("SetColorCode","setColorCode");
-        methodMapper.put("SetWhite","setWhite");
-        methodMapper.put("ZReport","zReport");
-        methodMapper.put("Nop","nop");
-    }
-
-    /**
-     * Converts the {@code Action} to {@code MethodClass} and invokes the method.
+        deviceFactories.put("SmartPlug", SmartPlug::create);
+        deviceFactories.put("SmartCamera", SmartCamera::create);
+        deviceFactories.put("SmartLamp", SmartLamp::create);
+        deviceFactories.put("SmartColorLamp", SmartColorLamp::create);
+    }
+
+    /**
+     * The {@code DeviceFactory} interface represents the {@code create} method of a {@code SmartDevice} type.
+     */
+    @FunctionalInterface
+    interface DeviceFactory {
+        /**
+         * Creates a {@code SmartDevice} with given values.
+         * @param values An {@code ArrayList<String>} that contains the values of the device.
+         * @return The created {@code SmartDevice}.
+         * @throws DeviceExceptions If there is illegal argument.
+         */
+        SmartDevice create(ArrayList<String> values) throws DeviceExceptions;
+    }
+
+    /**
+     * Finds the {@code Command} of the {@code Action} and executes it.
+     * <br> If the house has a journal, the action is appended to it before it is executed,
+     * and it is discarded again if it ends the program, because it does not change the house.
      * @param action An {@code Action} that provides from user.
      * @return An {@code Object} that contains response of the invoked method.
      * @throws DeviceExceptions If there is an illegal {@code Action}, it throws an DeviceException.
      * @see Action
-     * @see MethodClass
+     * @see Command
+     * @see CommandJournal
      */
     public static Object actionHandler(Action action) throws DeviceExceptions{
         String responseText = null;
         try{
-            if (Validations.isEmptyCommand(action.commandText)) {
+            if (action.isEmptyCommand()) {
                 return null;
             }
             responseText = "COMMAND: " + action.commandText +"\n";
-            if (Validations.isNull(time) & (!action.actionName.equals("SetInitialTime") || action.values.size() == 0)){
+            if (!Validations.isTime(getTime()) & (!isInitialAction(action.actionName) || action.getValueCount() == 0)){
                 throw new DeviceExceptions.InitialTimeException("ERROR: First command must be set initial time! Program is going to terminate!\n");
             }
             Validations.validateAction(action);
-            MethodClass method = new MethodClass(
-                    SmartDeviceController.class,
-                    SmartDeviceController.methodMapper.get(action.actionName),
-                    ArrayList.class);
-            if (Validations.isNull(method)){
-                throw new DeviceExceptions.InvalidCommandException("ERROR: Erroneous command!");
+            Command command = action.getCommand();
+            CommandJournal journal = House.current().journal;
+            if (!Validations.isNull(journal) && command != Command.SNAPSHOT){
+                journal.append(action);
+            }
+            Object methodResponse;
+            try {
+                if (isGroupTarget(command, action.getValues())){
+                    methodResponse = executeForGroup(command, action.getValues());
+                } else if (isPrefixTarget(command, action.getValues())){
+                    methodResponse = executeForTargets(command, action.getValues());
+                } else {
+                    methodResponse = command.execute(action.getValues());
+                }
+            } catch (DeviceExceptions.InitialTimeException e){
+                if (!Validations.isNull(journal)){
+                    journal.discardLast();
+                }
+                throw e;
+            } finally {
+                if (!Validations.isNull(journal)){
+                    journal.afterCommand(command);
+                }
             }
-            Object methodResponse = method.invokeMethod(null,action.values);
             if (!Validations.isNull(methodResponse)){
                 responseText += (String) methodResponse;
             }
@@ -88,8 +166,233 @@ public class SmartDeviceController {
 
     }
 
+    /**
+     * Checks an action can set the time of the house for the first time.
+     * @param actionName A {@code String} that is the action name.
+     * @return If the action is SetInitialTime or Restore, returns true.
+     */
+    private static boolean isInitialAction(String actionName){
+        return actionName.equals("SetInitialTime") || actionName.equals("Restore");
+    }
+
+    /**
+     * Checks the first parameter of a command is a prefix target.
+     * <br> A target is a prefix target if it ends with {@code *} and there is not a device with the same name.
+     * @param command A {@code Command}.
+     * @param values An {@code ArrayList<String>} that contains the parameters of the action.
+     * @return If the command is executed for all devices that match the target, returns true.
+     * @see Command#targetsDevices
+     */
+    private static boolean isPrefixTarget(Command command, ArrayList<String> values){
+        if (!command.targetsDevices || values.isEmpty()){
+            return false;
+        }
+        String target = values.get(0);
+        return target.endsWith("*") && Validations.isNull(SmartDevice.getDeviceByName(target));
+    }
+
+    /**
+     * Executes a command for all devices whose names start with the prefix of the target in order of their names.
+     * <br> The devices are found in one pass over the name trie. The command is executed for each device as if
+     * its name is given, and the errors of the devices do not stop the others.
+     * The response is one summary and the errors with the names of their devices.
+     * @param command A {@code Command} that targets devices.
+     * @param values <p>
+     *        An {@code ArrayList<String>} that contains:
+     *        <br> -The target that ends with {@code *} as {@code String}.
+     *        <br> -Other parameters of the command.
+     * </p>
+     * @return A String that is the summary of the command.
+     * @throws DeviceExceptions If there is not a device that matches the target, it gives an error.
+     * @see DeviceNameTrie
+     */
+    static String executeForTargets(Command command, ArrayList<String> values) throws DeviceExceptions {
+        String target = values.get(0);
+        ArrayList<SmartDevice> devices = SmartDevice.getDevicesByPrefix(target.substring(0, target.length() - 1));
+        if (devices.isEmpty()){
+            throw new DeviceExceptions.IllegalArgumentException("ERROR: There is not such a device!");
+        }
+        return applyToDevices(command, "matching " + target, devices, commandOperation(command, values));
+    }
+
+    /**
+     * Checks the first parameter of a command is a group target.
+     * <br> A target is a group target if it starts with {@code @} and there is not a device with the same name.
+     * @param command A {@code Command}.
+     * @param values An {@code ArrayList<String>} that contains the parameters of the action.
+     * @return If the command is executed for the members of a group, returns true.
+     * @see Command#targetsDevices
+     */
+    private static boolean isGroupTarget(Command command, ArrayList<String> values){
+        if (!command.targetsDevices || values.isEmpty()){
+            return false;
+        }
+        String target = values.get(0);
+        return target.startsWith("@") && Validations.isNull(SmartDevice.getDeviceByName(target));
+    }
+
+    /**
+     * Executes a command for all members of a device group in order of their ids.
+     * <br> {@code Switch}, {@code SetSwitchTime}, {@code SetWhite} and {@code SetColor} validate their values once
+     * and then apply them to the members. A group {@code SetSwitchTime} is scheduled as one workload.
+     * Other commands are executed for each member as if its name is given.
+     * @param command A {@code Command} that targets devices.
+     * @param values <p>
+     *        An {@code ArrayList<String>} that contains:
+     *        <br> -The name of the group after {@code @} as {@code String}.
+     *        <br> -Other parameters of the command.
+     * </p>
+     * @return A String that is the summary of the command.
+     * @throws DeviceExceptions If there is not such a group, the group is empty or a value is not valid, it gives an error.
+     * @see DeviceGroup
+     */
+    static String executeForGroup(Command command, ArrayList<String> values) throws DeviceExceptions {
+        DeviceGroup group = checkGroupExist(values.get(0).substring(1));
+        ArrayList<SmartDevice> devices = getGroupDevices(group);
+        if (devices.isEmpty()){
+            throw new DeviceExceptions.IllegalArgumentException("ERROR: This group has no device!");
+        }
+        String targetText = "in group " + group.name;
+        switch (command){
+            case SWITCH:
+                Validations.checkRange(2,2,values.size());
+                Validations.validateStatus(values.get(1));
+                boolean newStatus = Utilities.getStatusFromText(values.get(1));
+                return applyToDevices(command, targetText, devices, device -> {
+                    if (newStatus == device.status) {
+                        throw new DeviceExceptions.IllegalArgumentException("ERROR: This device is already switched "+ values.get(1).toLowerCase()+"!");
+                    }
+                    device.switchStatus(getTime(), newStatus);
+                });
+            case SET_SWITCH_TIME:
+                return setGroupSwitchTime(devices, targetText, values);
+            case SET_WHITE:
+                Validations.checkRange(3,3,values.size());
+                Validations.validateKelvin(values.get(1));
+                Validations.validateBrightness(values.get(2));
+                int kelvin = Integer.parseInt(values.get(1));
+                int whiteBrightness = Integer.parseInt(values.get(2));
+                return applyToDevices(command, targetText, devices, device -> {
+                    Validations.checkSmartLamp(device);
+                    ((SmartLamp) device).setWhite(kelvin, whiteBrightness);
+                });
+            case SET_COLOR:
+                Validations.checkRange(3,3,values.size());
+                Validations.validateColorCode(values.get(1));
+                Validations.validateBrightness(values.get(2));
+                int colorBrightness = Integer.parseInt(values.get(2));
+                return applyToDevices(command, targetText, devices, device -> {
+                    Validations.checkSmartColorLamp(device);
+                    ((SmartColorLamp) device).setColor(values.get(1), colorBrightness);
+                });
+            default:
+                return applyToDevices(command, targetText, devices, commandOperation(command, values));
+        }
+    }
+
+    /**
+     * Schedules one switch for all members of a group.
+     * <br> Each device is switched to the opposite of its current status. The previous switch time of each device is
+     * replaced, and the devices are logged in order as if they are scheduled one by one.
+     * @param devices An {@code ArrayList<SmartDevice>} that contains the members in order.
+     * @param targetText A {@code String} that describes the group in the summary.
+     * @param values <p>
+     *        An {@code ArrayList<String>} that contains:
+     *        <br> -The group target as {@code String}.
+     *        <br> -Switch time of the devices as {@code String}.
+     * </p>
+     * @return A String that is the summary of the command.
+     * @throws DeviceExceptions If the switch time is not valid or in the past, it gives an error.
+     * @see GroupSwitch
+     */
+    private static String setGroupSwitchTime(ArrayList<SmartDevice> devices, String targetText, ArrayList<String> values) throws DeviceExceptions {
+        Validations.checkRange(2,2,values.size());
+        long newTime = Utilities.convertStringToTime(values.get(1));
+        if (!Validations.isTime(newTime)){
+            throw new DeviceExceptions.IllegalArgumentException("ERROR: Time format is not correct!");
+        }
+        if (Validations.isPassedTime(newTime, getTime())){
+            throw new DeviceExceptions.IllegalArgumentException("ERROR: Switch time cannot be in the past!");
+        }
+        int[] deviceIds = new int[devices.size()];
+        boolean[] statuses = new boolean[devices.size()];
+        for (int i = 0; i < devices.size(); i++){
+            deviceIds[i] = devices.get(i).getId();
+            statuses[i] = !devices.get(i).status;
+        }
+        int workload = getWorkloads().allocate(
+                newTime,
+                WorkloadStore.NONE,
+                WorkloadStore.GROUP_SWITCH,
+                0,
+                new GroupSwitch(deviceIds, statuses));
+        for (SmartDevice device : devices){
+            releaseSwitchTimeWorkload(device);
+            device.setSwitchTimeWorkload(workload);
+        }
+        addWorkload(workload);
+        for (SmartDevice device : devices){
+            DeviceLogger.addNonExecuted(device);
+        }
+        runPassedWorkloads();
+        return "SUCCESS: SetSwitchTime has been applied to " + devices.size() + " of " + devices.size()
+                + " devices " + targetText + "!\n";
+    }
+
+    /**
+     * Creates an operation that executes a command for a device as if its name is given.
+     * @param command A {@code Command}.
+     * @param values An {@code ArrayList<String>} that contains the parameters of the action.
+     * @return A {@code DeviceOperation}.
+     */
+    private static DeviceOperation commandOperation(Command command, ArrayList<String> values){
+        ArrayList<String> deviceValues = new ArrayList<>(values);
+        return device -> {
+            deviceValues.set(0, device.name);
+            command.execute(deviceValues);
+        };
+    }
+
+    /**
+     * Applies an operation to devices in order. The errors of the devices do not stop the others.
+     * @param command A {@code Command} that is applied.
+     * @param targetText A {@code String} that describes the target in the summary.
+     * @param devices An {@code ArrayList<SmartDevice>} that contains the devices in order.
+     * @param operation A {@code DeviceOperation} that is applied to each device.
+     * @return A String that is one summary and the errors with the names of their devices.
+     */
+    private static String applyToDevices(Command command, String targetText, ArrayList<SmartDevice> devices,
+                                         DeviceOperation operation){
+        StringBuilder errors = new StringBuilder();
+        int applied = 0;
+        for (SmartDevice device : devices){
+            try {
+                operation.apply(device);
+                applied++;
+            } catch (DeviceExceptions e){
+                errors.append(device.name).append(": ").append(e.getMessage()).append('\n');
+            }
+        }
+        return "SUCCESS: " + command.actionName + " has been applied to " + applied + " of " + devices.size()
+                + " devices " + targetText + "!\n" + errors;
+    }
+
+    /**
+     * The {@code DeviceOperation} interface represents a command that is applied to one device of a target.
+     */
+    @FunctionalInterface
+    private interface DeviceOperation {
+        /**
+         * Applies the command to a device.
+         * @param device A {@code SmartDevice}.
+         * @throws DeviceExceptions If the command fails for the device.
+         */
+        void apply(SmartDevice device) throws DeviceExceptions;
+    }
+
     /**
      * Creates the report of all devices and returns it.
+     * <br> The information lines of the devices are taken from their caches.
      * @param values  An {@code ArrayList<String>} that contains nothing for executing.
      * @return A {@code String} that is the report of devices.
      * @throws DeviceExceptions If there is an invalid command.
@@ -98,13 +401,13 @@ public class SmartDeviceController {
     public static String zReport(ArrayList<String> values) throws DeviceExceptions {
         Validations.checkRange(0,0,values.size());
         ArrayList<Integer> orderedDeviceIDs = DeviceLogger.getOrderedDeviceIDs();
-        String reportText = "";
-        reportText += "Time is:\t" + Utilities.convertDateToString(time)+"\n";
+        StringBuilder reportText = new StringBuilder();
+        reportText.append("Time is:\t").append(Utilities.convertTimeToString(getTime())).append('\n');
         for (Integer deviceID : orderedDeviceIDs){
             SmartDevice device = SmartDevice.getDeviceById(deviceID);
-            reportText += device.getDeviceInfo() +"\n";
+            reportText.append(device.getCachedDeviceInfo()).append('\n');
         }
-        return reportText;
+        return reportText.toString();
     }
 
     /**
@@ -115,16 +418,16 @@ public class SmartDeviceController {
      *
      * @param values An {@code ArrayList<String>} that contains nothing for executing.
      * @throws DeviceExceptions It throws exception if there is no workload.
-     * @see Workload
+     * @see WorkloadStore
      * @see Validations
      */
     public static void nop(ArrayList<String> values) throws DeviceExceptions {
         Validations.checkRange(0,0,values.size());
-        Date lowestDate = findMostRecentDate();
-        if (Validations.isNull(lowestDate)){
+        long lowestDate = getScheduler().nextTime();
+        if (lowestDate == WorkloadScheduler.NO_TIME){
             throw new DeviceExceptions.IllegalArgumentException("ERROR: There is nothing to switch!");
         }
-        time = lowestDate;
+        setCurrentTime(lowestDate);
         runPassedWorkloads();
 
     }
@@ -132,33 +435,34 @@ public class SmartDeviceController {
     // Time Methods
 
     /**
-     * Sets the {@link SmartDeviceController#time} for once.
+     * Sets the time of the house for once.
      * @param values <p>
      *        An {@code ArrayList<String>} that contains:
      *        <br> -Time value as {@code String}.
      * </p>
      * @return A String that is a success message if success. Otherwise, it returns null.
      * @throws DeviceExceptions If there is illegal argument or
-     * {@link SmartDeviceController#time} is setted before, it gives an error.
+     * time of the house is setted before, it gives an error.
      * @see Validations
      * @see Utilities
      */
     public static String setInitialTime(ArrayList<String> values) throws DeviceExceptions{
         Validations.checkRange(1,1,values.size());
         String newTimeStr = values.get(0);
-        if (!Validations.isNull(time)){
+        if (Validations.isTime(getTime())){
             throw new DeviceExceptions.InvalidCommandException("ERROR: Erroneous command!");
         }
 
-        if (!Validations.isTrueDateFormat(newTimeStr)) {
+        long newTime = Utilities.convertStringToTime(newTimeStr);
+        if (!Validations.isTime(newTime)) {
             throw new DeviceExceptions.InitialTimeException("ERROR: Format of the initial date is wrong! Program is going to terminate!\n");
         }
-        time = Utilities.convertStringToDate(newTimeStr);
-        return "SUCCESS: Time has been set to "+Utilities.convertDateToString(time)+"!\n";
+        setCurrentTime(newTime);
+        return "SUCCESS: Time has been set to "+Utilities.convertTimeToString(getTime())+"!\n";
     }
 
     /**
-     * Sets the {@link SmartDeviceController#time}.
+     * Sets the time of the house.
      * @param values <p>
      *        An {@code ArrayList<String>} that contains:
      *        <br> -New time value as {@code String}.
@@ -170,20 +474,54 @@ public class SmartDeviceController {
     public static void setTime(ArrayList<String> values) throws DeviceExceptions {
         Validations.checkRange(1,1,values.size());
         String timeStr = values.get(0);
-        if (!Validations.isTrueDateFormat(timeStr)) {
+        long newTime = Utilities.convertStringToTime(timeStr);
+        if (!Validations.isTime(newTime)){
             throw new DeviceExceptions.IllegalArgumentException("ERROR: Time format is not correct!");
         }
-        Date newTime = Utilities.convertStringToDate(timeStr);
-        if (Validations.isSameTime(newTime,time)){
+        if (Validations.isSameTime(newTime,getTime())){
             throw new DeviceExceptions.IllegalArgumentException("ERROR: There is nothing to change!");
         }
-        if (Validations.isPassedTime(newTime, time)) {
+        if (Validations.isPassedTime(newTime, getTime())) {
             throw new DeviceExceptions.IllegalArgumentException("ERROR: Time cannot be reversed!");
         }
-        time = newTime;
+        setCurrentTime(newTime);
         runPassedWorkloads();
     }
 
+    /**
+     * Runs all workloads until a time in order of their executing times and sets the time of the house to it.
+     * <br> The time of the house follows the executing time of each workload while they run.
+     * @param values <p>
+     *        An {@code ArrayList<String>} that contains:
+     *        <br> -Last time value as {@code String}.
+     * </p>
+     * @throws DeviceExceptions If the time is not valid or in the past, it gives an error.
+     * @see Validations
+     * @see Utilities
+     */
+    public static void runUntil(ArrayList<String> values) throws DeviceExceptions {
+        Validations.checkRange(1,1,values.size());
+        String timeStr = values.get(0);
+        long horizon = Utilities.convertStringToTime(timeStr);
+        if (!Validations.isTime(horizon)){
+            throw new DeviceExceptions.IllegalArgumentException("ERROR: Time format is not correct!");
+        }
+        if (Validations.isPassedTime(horizon, getTime())) {
+            throw new DeviceExceptions.IllegalArgumentException("ERROR: Time cannot be reversed!");
+        }
+        IntList dueWorkloads = new IntList();
+        getScheduler().pollDue(horizon, dueWorkloads);
+        while (!dueWorkloads.isEmpty()){
+            long workloadTime = getWorkloads().getTime(dueWorkloads.get(0));
+            if (workloadTime > getTime()){
+                setCurrentTime(workloadTime);
+            }
+            runWorkloads(dueWorkloads);
+            getScheduler().pollDue(horizon, dueWorkloads);
+        }
+        setCurrentTime(horizon);
+    }
+
     /**
      * Skips the minutes.
      * @param values <p>
@@ -208,7 +546,7 @@ public class SmartDeviceController {
             throw new DeviceExceptions.IllegalArgumentException("ERROR: There is nothing to skip!");
         }
 
-        time = Utilities.addMinutes(time,minute);
+        setCurrentTime(Utilities.addMinutes(getTime(),minute));
         runPassedWorkloads();
     }
 
@@ -225,15 +563,18 @@ public class SmartDeviceController {
     public static void add(ArrayList<String> values) throws DeviceExceptions{
         Validations.checkMissingArgs(values,0);
         String deviceType = values.get(0);
-        MethodClass method = new MethodClass(deviceType, "create",ArrayList.class);
         if (Validations.isNull(deviceType)){
             throw new DeviceExceptions.InvalidCommandException("ERROR: Erroneous command!");
         }
+        DeviceFactory factory = deviceFactories.get(deviceType);
+        if (Validations.isNull(factory)){
+            return;
+        }
         ArrayList<String> newValues = new ArrayList<>(values.subList(1, values.size()));
-        SmartDevice device = (SmartDevice) method.invokeMethod(null,newValues);
+        SmartDevice device = factory.create(newValues);
 
         if (device.status){
-            device.setStartTime(time);
+            device.setStartTime(getTime());
         }
         DeviceLogger.addNonOperation(device);
 
@@ -252,18 +593,22 @@ public class SmartDeviceController {
     public static String remove(ArrayList<String> values) throws DeviceExceptions{
         Validations.checkRange(1,1,values.size());
         String deviceName = values.get(0);
-        if (!Validations.isLegalKey(SmartDevice.deviceNames, deviceName)) {
+        SmartDevice device  = SmartDevice.removeDeviceByName(deviceName);
+        if (Validations.isNull(device)) {
             throw new DeviceExceptions.IllegalArgumentException("ERROR: Erroneous command!");
         }
-        SmartDevice device  = SmartDevice.removeDeviceByName(deviceName);
         DeviceLogger.delete(device.getId());
+        Enumeration<DeviceGroup> groups = House.current().groups.elements();
+        while (groups.hasMoreElements()){
+            groups.nextElement().remove(device.getId());
+        }
         if (device.status){
-            device.off(time);
+            device.off(getTime());
         }
         String deviceInfo = device.getDeviceInfo();
-        if (!Validations.isNull(device.switchTimeWorkloadId)){
-            deleteWorkload(device.switchTimeWorkloadId);
-        }
+        releaseSwitchTimeWorkload(device);
+        deleteRoutines(device);
+        deleteScheduledActions(device);
         return "SUCCESS: Information about removed smart device is as follows:\n"+deviceInfo+"\n";
     }
 
@@ -285,8 +630,7 @@ public class SmartDeviceController {
         String newStatusStr = values.get(1);
 
 
-        Validations.checkDeviceExist(deviceName);
-        SmartDevice device = SmartDevice.getDeviceByName(deviceName);
+        SmartDevice device = Validations.checkDeviceExist(deviceName);
 
         Validations.validateStatus(newStatusStr);
         Boolean newStatus = Utilities.getStatusFromText(newStatusStr);
@@ -294,7 +638,7 @@ public class SmartDeviceController {
         if (newStatus.equals(device.status)) {
             throw new DeviceExceptions.IllegalArgumentException("ERROR: This device is already switched "+ newStatusStr.toLowerCase()+"!");
         }
-        device.switchStatus(time, newStatus);
+        device.switchStatus(getTime(), newStatus);
 
     }
 
@@ -315,41 +659,220 @@ public class SmartDeviceController {
         String deviceName = values.get(0);
         String timeStr = values.get(1);
 
-        Validations.checkDeviceExist(deviceName);
+        SmartDevice device = Validations.checkDeviceExist(deviceName);
 
-        if (!Validations.isTrueDateFormat(timeStr)){
+        long newTime = Utilities.convertStringToTime(timeStr);
+        if (!Validations.isTime(newTime)){
             throw new DeviceExceptions.IllegalArgumentException("ERROR: Time format is not correct!");
         }
 
-        Date newTime = Utilities.convertStringToDate(timeStr);
+        if (Validations.isPassedTime(newTime, getTime())){
+            throw new DeviceExceptions.IllegalArgumentException("ERROR: Switch time cannot be in the past!");
+        }
+
+        int workload = getWorkloads().allocate(
+                newTime,
+                device.getId(),
+                WorkloadStore.SWITCH,
+                device.status ? 0 : 1,
+                null);
+
+        releaseSwitchTimeWorkload(device);
+
+        device.setSwitchTimeWorkload(workload);
+        addWorkload(workload);
+        DeviceLogger.addNonExecuted(device);
+        runPassedWorkloads();
+
+    }
+
+    /**
+     * Adds a recurring switch schedule to a {@code SmartDevice}.
+     * <br> The device is switched to the status at the first time and then again after every period.
+     * @param values <p>
+     *        An {@code ArrayList<String>} that contains:
+     *        <br> -Name of the device as {@code String}.
+     *        <br> -First time of the schedule as {@code String}.
+     *        <br> -Period of the schedule as minutes.
+     *        <br> -Status of the device as {@code String} (On/Off).
+     * </p>
+     * @throws DeviceExceptions If there is no device that name is given name or
+     * the first time, period or status is not valid, it gives an error.
+     * @see Routine
+     */
+    public static void addRoutine(ArrayList<String> values) throws DeviceExceptions{
+        Validations.checkRange(4,4,values.size());
+        String deviceName = values.get(0);
+        String timeStr = values.get(1);
+        String periodStr = values.get(2);
+        String statusStr = values.get(3);
 
-        if (Validations.isPassedTime(newTime, time)){
+        SmartDevice device = Validations.checkDeviceExist(deviceName);
+        long firstTime = Utilities.convertStringToTime(timeStr);
+        if (!Validations.isTime(firstTime)){
+            throw new DeviceExceptions.IllegalArgumentException("ERROR: Time format is not correct!");
+        }
+        if (Validations.isPassedTime(firstTime, getTime())){
             throw new DeviceExceptions.IllegalArgumentException("ERROR: Switch time cannot be in the past!");
         }
-        SmartDevice device = SmartDevice.getDeviceByName(deviceName);
+        if (!Validations.isCanInt(periodStr) || !Validations.isPositive(Integer.parseInt(periodStr))){
+            throw new DeviceExceptions.IllegalArgumentException("ERROR: Period must be a positive integer!");
+        }
+        Validations.validateStatus(statusStr);
+        Routine routine = new Routine(device, firstTime, Integer.parseInt(periodStr), Utilities.getStatusFromText(statusStr));
+        device.routines.add(routine);
+        addWorkload(routine.getWorkload());
+        runPassedWorkloads();
+    }
 
-        MethodClass method = new MethodClass(
-                device.cls,
-                "switchStatus",
-                Date.class, boolean.class);
+    /**
+     * Removes all recurring switch schedules of a {@code SmartDevice}.
+     * @param values <p>
+     *        An {@code ArrayList<String>} that contains:
+     *        <br> -Name of the device as {@code String}.
+     * </p>
+     * @throws DeviceExceptions If there is no device that name is given name or the device has no schedule,
+     * it gives an error.
+     * @see Routine
+     */
+    public static void removeRoutines(ArrayList<String> values) throws DeviceExceptions{
+        Validations.checkRange(1,1,values.size());
+        String deviceName = values.get(0);
+        SmartDevice device = Validations.checkDeviceExist(deviceName);
+        if (device.routines.isEmpty()){
+            throw new DeviceExceptions.IllegalArgumentException("ERROR: This device has no routine!");
+        }
+        deleteRoutines(device);
+    }
 
-        Object[] workloadParam =new Object[]{newTime,!device.status};
+    /**
+     * Gets the consumption of a {@code SmartPlug} or the used storage of a {@code SmartCamera} until now.
+     * @param values <p>
+     *        An {@code ArrayList<String>} that contains:
+     *        <br> -Name of the device as {@code String}.
+     * </p>
+     * @return A String that keeps the consumption including the current status of the device.
+     * @throws DeviceExceptions If there is no device that name is given name or
+     * the device does not have a consumption, it gives an error.
+     * @see SmartDevice#getConsumptionText(long)
+     */
+    public static String consumption(ArrayList<String> values) throws DeviceExceptions{
+        Validations.checkRange(1,1,values.size());
+        String deviceName = values.get(0);
+        SmartDevice device = Validations.checkDeviceExist(deviceName);
+        String consumptionText = device.getConsumptionText(getTime());
+        if (Validations.isNull(consumptionText)){
+            throw new DeviceExceptions.IllegalArgumentException("ERROR: This device does not have a consumption!");
+        }
+        return consumptionText + "\n";
+    }
 
-        Workload workload = new Workload(
-                device,
-                newTime,
-                method,
-                workloadParam);
+    /**
+     * Gets the lateness statistics of the real-time clock of the current house.
+     * @param values An {@code ArrayList<String>} that contains nothing for executing.
+     * @return A String that contains the statistics.
+     * @throws DeviceExceptions If the house does not have a real-time clock, it gives an error.
+     * @see RealTimeClock#getStatsText()
+     */
+    public static String clockStats(ArrayList<String> values) throws DeviceExceptions{
+        Validations.checkRange(0,0,values.size());
+        RealTimeClock clock = House.current().clock;
+        if (Validations.isNull(clock)){
+            throw new DeviceExceptions.IllegalArgumentException("ERROR: Real-time clock is not running!");
+        }
+        return clock.getStatsText() + "\n";
+    }
+
+    /**
+     * Schedules a device command to execute at a time.
+     * @param values <p>
+     *        An {@code ArrayList<String>} that contains:
+     *        <br> -Executing time of the command as {@code String}.
+     *        <br> -Name of the command as {@code String}.
+     *        <br> -Name of the device as {@code String}.
+     *        <br> -Other parameters of the command.
+     * </p>
+     * @return A String that is a success message with the id of the scheduled action.
+     * @throws DeviceExceptions If the time is not valid, the command cannot be scheduled or
+     * there is no device that name is given name, it gives an error.
+     * @see ScheduledAction
+     */
+    public static String scheduleAction(ArrayList<String> values) throws DeviceExceptions{
+        Validations.checkMissingArgs(values,0,1,2);
+        String timeStr = values.get(0);
+        Command command = Command.of(values.get(1));
+        String deviceName = values.get(2);
 
-        if (!Validations.isNull(device.switchTimeWorkloadId)){
-            deleteWorkload(device.switchTimeWorkloadId);
+        long time = Utilities.convertStringToTime(timeStr);
+        if (!Validations.isTime(time)){
+            throw new DeviceExceptions.IllegalArgumentException("ERROR: Time format is not correct!");
+        }
+        if (Validations.isPassedTime(time, getTime())){
+            throw new DeviceExceptions.IllegalArgumentException("ERROR: Switch time cannot be in the past!");
+        }
+        if (!ScheduledAction.isSchedulable(command)){
+            throw new DeviceExceptions.InvalidCommandException("ERROR: Erroneous command!");
         }
+        SmartDevice device = Validations.checkDeviceExist(deviceName);
 
-        device.switchTimeWorkloadId = workload.getId();
-        addWorkload(workload);
-        DeviceLogger.addNonExecuted(device);
+        ScheduledAction action = new ScheduledAction(
+                device, time, command, new ArrayList<>(values.subList(3, values.size())));
+        device.addScheduledAction(action);
+        addWorkload(action.workload);
         runPassedWorkloads();
+        return "SUCCESS: Action has been scheduled with id " + action.id + "!\n";
+    }
+
+    /**
+     * Cancels a scheduled action with using its id.
+     * @param values <p>
+     *        An {@code ArrayList<String>} that contains:
+     *        <br> -Id of the scheduled action.
+     * </p>
+     * @throws DeviceExceptions If there is no scheduled action that id is given id, it gives an error.
+     * @see ScheduledAction
+     */
+    public static void cancelAction(ArrayList<String> values) throws DeviceExceptions{
+        Validations.checkRange(1,1,values.size());
+        String idStr = values.get(0);
+        if (!Validations.isCanInt(idStr)){
+            throw new DeviceExceptions.InvalidCommandException("ERROR: Erroneous command!");
+        }
+        ScheduledAction action = null;
+        try {
+            action = ScheduledAction.getScheduledAction(Long.parseLong(idStr));
+        } catch (NumberFormatException e) {
+        }
+        if (Validations.isNull(action)){
+            throw new DeviceExceptions.IllegalArgumentException("ERROR: There is not such a scheduled action!");
+        }
+        SmartDevice.getDeviceById(getWorkloads().getDeviceId(action.workload)).removeScheduledAction(action);
+        ScheduledAction.removeScheduledAction(action);
+        deleteWorkload(action.workload);
+    }
 
+    /**
+     * Lists the scheduled actions of a {@code SmartDevice} in order of their executing times.
+     * @param values <p>
+     *        An {@code ArrayList<String>} that contains:
+     *        <br> -Name of the device as {@code String}.
+     * </p>
+     * @return A String that contains a line for each scheduled action.
+     * @throws DeviceExceptions If there is no device that name is given name, it gives an error.
+     * @see ScheduledAction
+     */
+    public static String listActions(ArrayList<String> values) throws DeviceExceptions{
+        Validations.checkRange(1,1,values.size());
+        String deviceName = values.get(0);
+        SmartDevice device = Validations.checkDeviceExist(deviceName);
+        StringBuilder listText = new StringBuilder();
+        listText.append("Scheduled actions of ").append(device.name).append(":\n");
+        for (ScheduledAction action: device.getScheduledActions()){
+            listText.append(action.id).append('\t')
+                    .append(Utilities.convertTimeToString(action.time)).append('\t')
+                    .append(action.getText()).append('\n');
+        }
+        return listText.toString();
     }
 
     /**
@@ -380,6 +903,177 @@ public class SmartDeviceController {
         SmartDevice.changeDeviceName(deviceName,newName);
     }
 
+    // Group Methods
+
+    /**
+     * Adds devices to a group. The group is created if there is not.
+     * <br> All devices are checked before any of them is added.
+     * @param values <p>
+     *        An {@code ArrayList<String>} that contains:
+     *        <br> -Name of the group as {@code String}.
+     *        <br> -Names of the devices as {@code String}.
+     * </p>
+     * @throws DeviceExceptions If there is no device that name is given name, it gives an error.
+     * @see DeviceGroup
+     */
+    public static void addGroup(ArrayList<String> values) throws DeviceExceptions{
+        Validations.checkMissingArgs(values,1);
+        String groupName = values.get(0);
+        if (groupName.isEmpty()){
+            throw new DeviceExceptions.IllegalArgumentException("ERROR: Erroneous command!");
+        }
+        ArrayList<SmartDevice> devices = new ArrayList<>();
+        for (String deviceName: values.subList(1, values.size())){
+            devices.add(Validations.checkDeviceExist(deviceName));
+        }
+        Dictionary<String,DeviceGroup> groups = House.current().groups;
+        DeviceGroup group = groups.get(groupName);
+        if (Validations.isNull(group)){
+            group = new DeviceGroup(groupName);
+            groups.put(groupName, group);
+        }
+        for (SmartDevice device: devices){
+            group.add(device.getId());
+        }
+    }
+
+    /**
+     * Removes devices from a group. The group is kept even if it is empty.
+     * @param values <p>
+     *        An {@code ArrayList<String>} that contains:
+     *        <br> -Name of the group as {@code String}.
+     *        <br> -Names of the devices as {@code String}.
+     * </p>
+     * @throws DeviceExceptions If there is no group or device that name is given name, it gives an error.
+     * @see DeviceGroup
+     */
+    public static void removeFromGroup(ArrayList<String> values) throws DeviceExceptions{
+        Validations.checkMissingArgs(values,1);
+        DeviceGroup group = checkGroupExist(values.get(0));
+        ArrayList<SmartDevice> devices = new ArrayList<>();
+        for (String deviceName: values.subList(1, values.size())){
+            devices.add(Validations.checkDeviceExist(deviceName));
+        }
+        for (SmartDevice device: devices){
+            group.remove(device.getId());
+        }
+    }
+
+    /**
+     * Removes a group. The devices and their scheduled switches are not changed.
+     * @param values <p>
+     *        An {@code ArrayList<String>} that contains:
+     *        <br> -Name of the group as {@code String}.
+     * </p>
+     * @throws DeviceExceptions If there is no group that name is given name, it gives an error.
+     * @see DeviceGroup
+     */
+    public static void removeGroup(ArrayList<String> values) throws DeviceExceptions{
+        Validations.checkRange(1,1,values.size());
+        DeviceGroup group = checkGroupExist(values.get(0));
+        House.current().groups.remove(group.name);
+    }
+
+    /**
+     * Lists the members of a group in order of their ids.
+     * @param values <p>
+     *        An {@code ArrayList<String>} that contains:
+     *        <br> -Name of the group as {@code String}.
+     * </p>
+     * @return A String that contains a line for each member.
+     * @throws DeviceExceptions If there is no group that name is given name, it gives an error.
+     * @see DeviceGroup
+     */
+    public static String listGroup(ArrayList<String> values) throws DeviceExceptions{
+        Validations.checkRange(1,1,values.size());
+        DeviceGroup group = checkGroupExist(values.get(0));
+        StringBuilder listText = new StringBuilder();
+        listText.append("Devices of group ").append(group.name).append(":\n");
+        for (SmartDevice device: getGroupDevices(group)){
+            listText.append(device.name).append('\n');
+        }
+        return listText.toString();
+    }
+
+    /**
+     * Gets a group with its name.
+     * @param groupName A {@code String} that is the name of the group.
+     * @return A {@code DeviceGroup}.
+     * @throws DeviceExceptions If there is no group that name is given name, it gives an error.
+     */
+    private static DeviceGroup checkGroupExist(String groupName) throws DeviceExceptions{
+        DeviceGroup group = House.current().groups.get(groupName);
+        if (Validations.isNull(group)){
+            throw new DeviceExceptions.IllegalArgumentException("ERROR: There is not such a group!");
+        }
+        return group;
+    }
+
+    /**
+     * Gets the members of a group.
+     * @param group A {@code DeviceGroup}.
+     * @return An {@code ArrayList<SmartDevice>} in order of the ids of the devices.
+     */
+    private static ArrayList<SmartDevice> getGroupDevices(DeviceGroup group){
+        ArrayList<SmartDevice> devices = new ArrayList<>(group.size());
+        for (int deviceId: group.getMembers()){
+            SmartDevice device = SmartDevice.getDeviceById(deviceId);
+            if (!Validations.isNull(device)){
+                devices.add(device);
+            }
+        }
+        return devices;
+    }
+
+    // Snapshot Methods
+
+    /**
+     * Writes the whole state of the house to a snapshot file.
+     * @param values <p>
+     *        An {@code ArrayList<String>} that contains:
+     *        <br> -Path of the snapshot file as {@code String}.
+     * </p>
+     * @return A String that is a success message.
+     * @throws DeviceExceptions If the file cannot be written, it gives an error.
+     * @see HouseSnapshot
+     */
+    public static String snapshot(ArrayList<String> values) throws DeviceExceptions{
+        Validations.checkRange(1,1,values.size());
+        String pathStr = values.get(0);
+        int size;
+        try {
+            size = HouseSnapshot.write(House.current(), Paths.get(pathStr));
+        } catch (IOException | InvalidPathException e){
+            throw new DeviceExceptions.IllegalArgumentException("ERROR: Snapshot could not be written!");
+        }
+        return "SUCCESS: Snapshot of " + House.current().devices.size() + " devices has been written to " + pathStr
+                + " (" + size + " bytes)!\n";
+    }
+
+    /**
+     * Replaces the whole state of the house with the state in a snapshot file.
+     * <br> It can be the first command instead of SetInitialTime. The house is not changed if the snapshot cannot be read.
+     * @param values <p>
+     *        An {@code ArrayList<String>} that contains:
+     *        <br> -Path of the snapshot file as {@code String}.
+     * </p>
+     * @return A String that is a success message.
+     * @throws DeviceExceptions If the file cannot be read or it is not a valid snapshot, it gives an error.
+     * @see HouseSnapshot
+     */
+    public static String restore(ArrayList<String> values) throws DeviceExceptions{
+        Validations.checkRange(1,1,values.size());
+        String pathStr = values.get(0);
+        int deviceCount;
+        try {
+            deviceCount = HouseSnapshot.restore(House.current(), Paths.get(pathStr));
+        } catch (IOException | InvalidPathException e){
+            throw new DeviceExceptions.IllegalArgumentException("ERROR: Snapshot could not be restored!");
+        }
+        return "SUCCESS: " + deviceCount + " devices have been restored from " + pathStr + " and time is "
+                + Utilities.convertTimeToString(getTime()) + "!\n";
+    }
+
     // Smart Lamp Methods
 
     /**
@@ -399,8 +1093,7 @@ public class SmartDeviceController {
         String deviceName = values.get(0);
         String kelvinStr = values.get(1);
 
-        Validations.checkDeviceExist(deviceName);
-        SmartDevice device = SmartDevice.getDeviceByName(deviceName);
+        SmartDevice device = Validations.checkDeviceExist(deviceName);
 
         Validations.checkSmartLamp(device);
         SmartLamp lamp = (SmartLamp) device;
@@ -425,8 +1118,7 @@ public class SmartDeviceController {
         String deviceName = values.get(0);
         String brightnessStr = values.get(1);
 
-        Validations.checkDeviceExist(deviceName);
-        SmartDevice device = SmartDevice.getDeviceByName(deviceName);
+        SmartDevice device = Validations.checkDeviceExist(deviceName);
 
         Validations.checkSmartLamp(device);
         SmartLamp lamp = (SmartLamp) device;
@@ -453,8 +1145,7 @@ public class SmartDeviceController {
         String kelvinStr = values.get(1);
         String brightnessStr = values.get(2);
 
-        Validations.checkDeviceExist(deviceName);
-        SmartDevice device = SmartDevice.getDeviceByName(deviceName);
+        SmartDevice device = Validations.checkDeviceExist(deviceName);
 
         Validations.checkSmartLamp(device);
         SmartLamp lamp = (SmartLamp) device;
@@ -485,8 +1176,7 @@ public class SmartDeviceController {
         String deviceName = values.get(0);
         String colorCode = values.get(1);
 
-        Validations.checkDeviceExist(deviceName);
-        SmartDevice device = SmartDevice.getDeviceByName(deviceName);
+        SmartDevice device = Validations.checkDeviceExist(deviceName);
 
         Validations.checkSmartColorLamp(device);
         SmartColorLamp lamp = (SmartColorLamp) device;
@@ -513,8 +1203,7 @@ public class SmartDeviceController {
         String colorCode = values.get(1);
         String brightnessStr = values.get(2);
 
-        Validations.checkDeviceExist(deviceName);
-        SmartDevice device = SmartDevice.getDeviceByName(deviceName);
+        SmartDevice device = Validations.checkDeviceExist(deviceName);
 
         Validations.checkSmartColorLamp(device);
         SmartColorLamp lamp = (SmartColorLamp) device;
@@ -544,8 +1233,7 @@ public class SmartDeviceController {
         String deviceName = values.get(0);
         String ampereStr = values.get(1);
 
-        Validations.checkDeviceExist(deviceName);
-        SmartDevice device = SmartDevice.getDeviceByName(deviceName);
+        SmartDevice device = Validations.checkDeviceExist(deviceName);
 
         Validations.checkSmartPlug(device);
         SmartPlug plug = (SmartPlug) device;
@@ -555,7 +1243,7 @@ public class SmartDeviceController {
         if (plug.plug){
             throw new DeviceExceptions.InvalidCommandException("ERROR: There is already an item plugged in to that plug!");
         }
-        plug.plugIn(Float.parseFloat(ampereStr), time);
+        plug.plugIn(Float.parseFloat(ampereStr), getTime());
     }
 
     /**
@@ -574,8 +1262,7 @@ public class SmartDeviceController {
 
         String deviceName = values.get(0);
 
-        Validations.checkDeviceExist(deviceName);
-        SmartDevice device = SmartDevice.getDeviceByName(deviceName);
+        SmartDevice device = Validations.checkDeviceExist(deviceName);
 
         Validations.checkSmartPlug(device);
         SmartPlug plug = (SmartPlug) device;
@@ -583,105 +1270,275 @@ public class SmartDeviceController {
         if (!plug.plug){
             throw new DeviceExceptions.InvalidCommandException("ERROR: This plug has no item to plug out from that plug!");
         }
-        plug.plugOut(time);
+        plug.plugOut(getTime());
     }
 
 
     // Workload Methods
 
     /**
-     * Adds a new workload in all workloads lists.
-     * @param workload A {@code Workload} object.
-     * @see Workload
+     * Adds a new workload to the scheduler.
+     * @param workload An {@code int} that is the handle of the workload.
+     * @see WorkloadStore
      */
-    private static void addWorkload(Workload workload){
-        ArrayList<Workload> dateWorkloads =  workloads.get(workload.time);
-        if (Validations.isNull(dateWorkloads)){
-            dateWorkloads = new ArrayList<>();
+    private static void addWorkload(int workload){
+        getScheduler().add(workload);
+    }
+
+    /**
+     * Deletes a workload from the scheduler and the store of the workloads.
+     * @param workload An {@code int} that is the handle of the workload.
+     * @see WorkloadStore
+     */
+    private static void deleteWorkload(int workload){
+        getScheduler().remove(workload);
+        getWorkloads().free(workload);
+    }
+
+    /**
+     * Removes the switch time workload of a device.
+     * <br> If the workload is a group switch, only the device leaves it, and it is deleted with its last device.
+     * @param device A {@code SmartDevice}.
+     * @see GroupSwitch
+     */
+    private static void releaseSwitchTimeWorkload(SmartDevice device){
+        int workload = device.switchTimeWorkload;
+        if (workload == WorkloadStore.NONE){
+            return;
+        }
+        WorkloadStore workloads = getWorkloads();
+        if (workloads.getOpcode(workload) != WorkloadStore.GROUP_SWITCH
+                || ((GroupSwitch) workloads.getPayload(workload)).leave(device.getId())){
+            deleteWorkload(workload);
         }
-        dateWorkloads.add(workload);
-        workloads.put(workload.time, dateWorkloads);
     }
 
     /**
-     * Deletes workloads that id in given ids in all workloads lists.
-     * @param workloadIds  An {@code Integer} varargs that represents {@code Workload}'s ids .
-     * @see Workload
+     * Deletes the workloads of all routines of a device and the routines.
+     * @param device A {@code SmartDevice}.
+     * @see Routine
      */
-    private static void deleteWorkload(Integer... workloadIds){
-        for (int workloadId: workloadIds){
-            Workload workload = Workload.workloads.get(workloadId);
-            ArrayList<Workload> dateWorkloads = workloads.get(workload.time);
-            dateWorkloads.remove(workload);
-            if (dateWorkloads.isEmpty()){
-                workloads.remove(workload.time);
-            }
-            Workload.workloads.remove(workload.getId());
+    private static void deleteRoutines(SmartDevice device){
+        for (Routine routine: device.routines){
+            deleteWorkload(routine.getWorkload());
         }
+        device.routines.clear();
     }
 
     /**
-     * Finds the most recent date in between {@link #workloads} dictionary keys.
-     * @return A {@code Date} that represents most recent date.
-     * @see Workload
+     * Deletes the workloads of all scheduled actions of a device.
+     * @param device A {@code SmartDevice}.
+     * @see ScheduledAction
      */
-    private static Date findMostRecentDate(){
-        Date lowestDate = null;
-        Enumeration<Date> dates = workloads.keys();
-        while(dates.hasMoreElements()){
-            Date date = dates.nextElement();
-            if (Validations.isNull(lowestDate)){
-                lowestDate = date;
-            } else if (date.getTime() < lowestDate.getTime()) {
-                lowestDate = date;
-            }
+    private static void deleteScheduledActions(SmartDevice device){
+        for (ScheduledAction action: new ArrayList<>(device.getScheduledActions())){
+            device.removeScheduledAction(action);
+            ScheduledAction.removeScheduledAction(action);
+            deleteWorkload(action.workload);
         }
-        return lowestDate;
     }
 
     /**
-     * Runs workloads that executing times are passed.
-     * @see Workload
-     * @see #runWorkloads(Date)
+     * Runs workloads that executing times are passed in order of their executing times.
+     * @see WorkloadScheduler
+     * @see #runWorkloads(IntList)
      */
     private static void runPassedWorkloads(){
-        ArrayList<Date> dates = getPassedDates();
-        for(Date date: dates){
-            runWorkloads(date);
+        IntList dueWorkloads = new IntList();
+        getScheduler().pollDue(getTime(), dueWorkloads);
+        while (!dueWorkloads.isEmpty()){
+            runWorkloads(dueWorkloads);
+            getScheduler().pollDue(getTime(), dueWorkloads);
         }
     }
 
     /**
-     * Gets passed dates according to {@link #time} in {@link #workloads}.
-     * @return An {@code Arraylist<Code>} that contains passed dates.
+     * Runs the workloads that have the same executing time and removes them from the store.
+     * <br> The transaction of each workload is called directly according to its opcode.
+     * If a workload is an occurrence of a routine, the next occurrence is scheduled instead of logging it.
+     * Scheduled actions are removed from the timelines of their devices and they are not logged too.
+     * They are executed as the time of the house is their executing time.
+     * A workload of a removed device is dropped. A group switch switches each of its devices that are not removed.
+     * An error of a device is ignored, so it does not stop the other workloads.
+     * <br> If parallel firing is enabled, a large group of only switch workloads is fired with
+     * {@link SmartDeviceController#fireSwitchesInParallel(IntList)}.
+     * @param dueWorkloads An {@code IntList} that contains the handles that are taken from the scheduler in order.
+     * @see WorkloadStore
+     * @see Routine
+     * @see ScheduledAction
      */
-    private static ArrayList<Date> getPassedDates(){
-        ArrayList<Date> passedDatesList = new ArrayList<>();
-        Enumeration<Date> dates = workloads.keys();
-        while(dates.hasMoreElements()){
-            Date newDate = dates.nextElement();
-            if (time.getTime() >= newDate.getTime()){
-                passedDatesList.add(newDate);
+    private static void runWorkloads(IntList dueWorkloads){
+        if (House.current().parallelFiring && dueWorkloads.size() >= PARALLEL_FIRING_THRESHOLD
+                && fireSwitchesInParallel(dueWorkloads)){
+            return;
+        }
+        WorkloadStore workloads = getWorkloads();
+        ArrayList<SmartDevice> executedDevices = new ArrayList<>();
+        for (int i = 0; i < dueWorkloads.size(); i++){
+            int workload = dueWorkloads.get(i);
+            if (workloads.getOpcode(workload) == WorkloadStore.GROUP_SWITCH){
+                GroupSwitch groupSwitch = (GroupSwitch) workloads.getPayload(workload);
+                for (int j = 0; j < groupSwitch.size(); j++){
+                    SmartDevice member = SmartDevice.getDeviceById(groupSwitch.getDeviceId(j));
+                    if (!Validations.isNull(member)){
+                        switchDevice(member, workloads.getTime(workload), groupSwitch.getStatus(j));
+                        executedDevices.add(member);
+                    }
+                }
+                workloads.free(workload);
+                continue;
+            }
+            SmartDevice device = SmartDevice.getDeviceById(workloads.getDeviceId(workload));
+            if (Validations.isNull(device)){
+                workloads.free(workload);
+                continue;
             }
+            long time = workloads.getTime(workload);
+            boolean status = workloads.getArgument(workload) != 0;
+            switch (workloads.getOpcode(workload)){
+                case WorkloadStore.ACTION:
+                    ScheduledAction action = (ScheduledAction) workloads.getPayload(workload);
+                    device.removeScheduledAction(action);
+                    ScheduledAction.removeScheduledAction(action);
+                    workloads.free(workload);
+                    long currentTime = getTime();
+                    setCurrentTime(time);
+                    try {
+                        action.run(device);
+                    } catch (DeviceExceptions | RuntimeException e) {
+                    } finally {
+                        setCurrentTime(currentTime);
+                    }
+                    break;
+                case WorkloadStore.ROUTINE:
+                    try {
+                        device.switchByRoutine(time, status);
+                    } catch (RuntimeException e) {
+                    }
+                    addWorkload(((Routine) workloads.getPayload(workload)).next());
+                    break;
+                case WorkloadStore.SWITCH:
+                    switchDevice(device, time, status);
+                    executedDevices.add(device);
+                    workloads.free(workload);
+                    break;
+            }
+        }
+        DeviceLogger.addExecutedAll(executedDevices);
+    }
+
+    /**
+     * Switches the status of a device for a workload.
+     * <br> An error of the device is ignored as the workloads that were invoked with {@code MethodClass},
+     * so it does not stop the other workloads of the same time and the time of the house still moves forward.
+     * @param device A {@code SmartDevice}.
+     * @param time A {@code long} as epoch milliseconds that is the executing time of the workload.
+     * @param status A {@code boolean} that is the new status of the device.
+     */
+    private static void switchDevice(SmartDevice device, long time, boolean status){
+        try {
+            device.switchStatus(time, status);
+        } catch (RuntimeException e) {
         }
-        return passedDatesList;
     }
 
     /**
-     * Runs all workloads that executing date is same with given date in {@link #workloads}.
-     * @param date A Date object.
+     * Fires the switch workloads that have the same executing time with the threads of a {@code ForkJoinPool}.
+     * <br> The workloads are fired in parallel only if all of them are switch workloads of different devices,
+     * since a switch only changes its own device. The handles are freed and the devices are logged
+     * in order after all switches are finished, so the result is the same as firing them one by one.
+     * @param dueWorkloads An {@code IntList} that contains the handles that are taken from the scheduler in order.
+     * @return If the workloads are fired, returns true. Otherwise, nothing is changed.
+     * @see SwitchTask
      */
-    private static void runWorkloads(Date date){
-        ArrayList<Workload> executedWorkloads = new ArrayList<>();
-        ArrayList<Workload> dateWorkloads = workloads.get(date);
-        for (Workload workload: dateWorkloads){
-            workload.run();
-            workload.device.switchTimeWorkloadId = null;
-            executedWorkloads.add(0,workload);
+    private static boolean fireSwitchesInParallel(IntList dueWorkloads){
+        WorkloadStore workloads = getWorkloads();
+        int size = dueWorkloads.size();
+        SmartDevice[] devices = new SmartDevice[size];
+        boolean[] statuses = new boolean[size];
+        HashSet<Integer> deviceIds = new HashSet<>();
+        for (int i = 0; i < size; i++){
+            int workload = dueWorkloads.get(i);
+            if (workloads.getOpcode(workload) != WorkloadStore.SWITCH || !deviceIds.add(workloads.getDeviceId(workload))){
+                return false;
+            }
+            devices[i] = SmartDevice.getDeviceById(workloads.getDeviceId(workload));
+            statuses[i] = workloads.getArgument(workload) != 0;
         }
-        for (Workload workload: executedWorkloads){
-            DeviceLogger.addExecuted(workload.device,0);
-            deleteWorkload(workload.getId());
+        pool.invoke(new SwitchTask(devices, statuses, workloads.getTime(dueWorkloads.get(0)), 0, size));
+        ArrayList<SmartDevice> executedDevices = new ArrayList<>(size);
+        for (int i = 0; i < size; i++){
+            workloads.free(dueWorkloads.get(i));
+            if (!Validations.isNull(devices[i])){
+                executedDevices.add(devices[i]);
+            }
+        }
+        DeviceLogger.addExecutedAll(executedDevices);
+        return true;
+    }
+
+    /**
+     * The {@code SwitchTask} class switches a range of devices by dividing it into halves.
+     */
+    private static class SwitchTask extends RecursiveAction {
+        /**
+         * Version of the serialized form of the task.
+         */
+        private static final long serialVersionUID = 1L;
+        /**
+         * The most number of the devices that are switched without dividing.
+         */
+        private static final int BATCH_SIZE = 256;
+        /**
+         * The devices of all workloads. A device is null if it is removed.
+         */
+        private final SmartDevice[] devices;
+        /**
+         * New statuses of the devices.
+         */
+        private final boolean[] statuses;
+        /**
+         * The executing time of the workloads as epoch milliseconds.
+         */
+        private final long time;
+        /**
+         * Index of the first device of the task.
+         */
+        private final int first;
+        /**
+         * Index after the last device of the task.
+         */
+        private final int last;
+
+        /**
+         * Creates a {@code SwitchTask} for a range of devices.
+         * @param devices The devices of all workloads.
+         * @param statuses New statuses of the devices.
+         * @param time The executing time as epoch milliseconds.
+         * @param first Index of the first device.
+         * @param last Index after the last device.
+         */
+        SwitchTask(SmartDevice[] devices, boolean[] statuses, long time, int first, int last){
+            this.devices = devices;
+            this.statuses = statuses;
+            this.time = time;
+            this.first = first;
+            this.last = last;
+        }
+
+        @Override
+        protected void compute(){
+            if (last - first <= BATCH_SIZE){
+                for (int i = first; i < last; i++){
+                    if (!Validations.isNull(devices[i])){
+                        switchDevice(devices[i], time, statuses[i]);
+                    }
+                }
+                return;
+            }
+            int middle = (first + last) / 2;
+            invokeAll(new SwitchTask(devices, statuses, time, first, middle),
+                    new SwitchTask(devices, statuses, time, middle, last));
         }
     }
 }
@@ -51,6 +51,7 @@ public class SmartLamp extends SmartDevice {
      */
     public void setKelvin(Integer kelvin) {
         this.kelvin = kelvin;
+        invalidateDeviceInfo();
     }
     /**
      * Sets the {@link #brightness} value of {@code SmartLamp}
@@ -58,6 +59,7 @@ public class SmartLamp extends SmartDevice {
      */
     public void setBrightness(int brightness) {
         this.brightness = brightness;
+        invalidateDeviceInfo();
     }
     /**
      * Sets the {@link #kelvin} and {@link #brightness} value of {@code SmartLamp}
@@ -69,6 +71,28 @@ public class SmartLamp extends SmartDevice {
         setBrightness(brightness);
     }
 
+    /**
+     * Writes the properties of the {@code SmartLamp} to a snapshot.
+     * @param snapshot A {@code HouseSnapshot} that is being written.
+     */
+    @Override
+    void writeState(HouseSnapshot snapshot){
+        super.writeState(snapshot);
+        snapshot.putNullableInt(kelvin);
+        snapshot.putNullableInt(brightness);
+    }
+
+    /**
+     * Reads the properties of the {@code SmartLamp} from a snapshot.
+     * @param snapshot A {@code HouseSnapshot} that is being read.
+     */
+    @Override
+    void readState(HouseSnapshot snapshot){
+        super.readState(snapshot);
+        this.kelvin = snapshot.getNullableInt();
+        this.brightness = snapshot.getNullableInt();
+    }
+
     /**
      * Gets information about the {@code SmartLamp}.
      * @return A {@code String} that keeps information about the device.
@@ -1,5 +1,4 @@
 import java.util.ArrayList;
-import java.util.Date;
 
 /**
  * <p>
@@ -26,9 +25,9 @@ public class SmartPlug extends SmartDevice{
      */
     public boolean plug = false;
     /**
-     * Shows the time when a device plugs in.
+     * Shows the time when a device plugs in. It is {@link TimeFormat#NONE} if there is not.
      */
-    private Date plugInTime = null;
+    private long plugInTime = TimeFormat.NONE;
 
     /**
      * Sets the {@link #ampere} value
@@ -46,9 +45,9 @@ public class SmartPlug extends SmartDevice{
     }
     /**
      * Sets the {@link #plugInTime} value
-     * @param plugInTime A {@code Date}
+     * @param plugInTime A {@code long}
      */
-    private void setPlugInTime(Date plugInTime) {
+    private void setPlugInTime(long plugInTime) {
         this.plugInTime = plugInTime;
     }
 
@@ -61,19 +60,19 @@ public class SmartPlug extends SmartDevice{
     public SmartPlug(String name, Boolean status,Float ampere) {
         super(name, SmartPlug.class);
         if(status){
-            on(SmartDeviceController.time);
+            on(SmartDeviceController.getTime());
         }
         if (ampere !=0 ){
-            plugIn(ampere,SmartDeviceController.time);
+            plugIn(ampere,SmartDeviceController.getTime());
         }
     }
 
     /**
      * Plugs in a device to the plug
      * @param ampere A {@code Float} that represents ampere value of the device that plugged in.
-     * @param plugInTime A {@code Date} that represents the time when the device plugs in
+     * @param plugInTime A {@code long} that represents the time when the device plugs in
      */
-    public void plugIn(float ampere, Date plugInTime){
+    public void plugIn(float ampere, long plugInTime){
         setPlugInTime(plugInTime);
         setPlug(true);
         setAmpere(ampere);
@@ -81,15 +80,41 @@ public class SmartPlug extends SmartDevice{
 
     /**
      * Plugs out the device that plugged in from the plug
-     * @param plugOutTime A {@code Date} that represents the time when the device plugs out.
+     * @param plugOutTime A {@code long} that represents the time when the device plugs out.
      */
-    public void plugOut(Date plugOutTime){
+    public void plugOut(long plugOutTime){
         if (status){
             updateEnergy(this.plugInTime,plugOutTime);
         }
         setPlug(false);
         setAmpere(0);
-        setPlugInTime(null);
+        setPlugInTime(TimeFormat.NONE);
+    }
+
+    /**
+     * Writes the properties of the {@code SmartPlug} to a snapshot.
+     * @param snapshot A {@code HouseSnapshot} that is being written.
+     */
+    @Override
+    void writeState(HouseSnapshot snapshot){
+        super.writeState(snapshot);
+        snapshot.putFloat(totalEnergy);
+        snapshot.putFloat(ampere);
+        snapshot.putBoolean(plug);
+        snapshot.putLong(plugInTime);
+    }
+
+    /**
+     * Reads the properties of the {@code SmartPlug} from a snapshot.
+     * @param snapshot A {@code HouseSnapshot} that is being read.
+     */
+    @Override
+    void readState(HouseSnapshot snapshot){
+        super.readState(snapshot);
+        this.totalEnergy = snapshot.getFloat();
+        this.ampere = snapshot.getFloat();
+        this.plug = snapshot.getBoolean();
+        this.plugInTime = snapshot.getLong();
     }
 
     /**
@@ -103,10 +128,10 @@ public class SmartPlug extends SmartDevice{
 
     /**
      * Turns on the {@code SmartPlug}.
-     * @param startTime A {@code Date} object that represents the time of turned on.
+     * @param startTime A {@code long} that represents the time of turned on.
      */
     @Override
-    public void on(Date startTime){
+    public void on(long startTime){
         setStatus(true);
         setStartTime(startTime);
         if (plug){
@@ -115,30 +140,66 @@ public class SmartPlug extends SmartDevice{
     }
     /**
      * Turns off the {@code SmartPlug} and updates filled storage.
-     * @param stopTime A {@code Date} represents the time of turned off.
+     * @param stopTime A {@code long} represents the time of turned off.
      */
     @Override
-    public void off(Date stopTime){
+    public void off(long stopTime){
         setStatus(false);
         updateEnergy(this.plugInTime,stopTime);
         if (plug){
             setPlugInTime(stopTime);
         }
-        setStartTime(null);
+        setStartTime(TimeFormat.NONE);
     }
 
     /**
      * Updates the total consumed energy.
-     * @param startTime A {@code Date} that represents the time when the device starts drawing amps.
-     * @param stopTime A {@code Date} that represents the time when the device stops drawing amps
+     * @param startTime A {@code long} that represents the time when the device starts drawing amps.
+     * @param stopTime A {@code long} that represents the time when the device stops drawing amps
      * @see #totalEnergy
      */
-    private void updateEnergy(Date startTime, Date stopTime){
-        if(!Validations.isNull(startTime) & !Validations.isNull(stopTime)){
-            long diff = stopTime.getTime()-startTime.getTime();
-            Float hour = Utilities.millisecondToHour(diff);
-            this.totalEnergy += this.voltage*this.ampere *hour;
+    private void updateEnergy(long startTime, long stopTime){
+        if(Validations.isTime(startTime) & Validations.isTime(stopTime)){
+            this.totalEnergy += energyBetween(startTime, stopTime);
+            invalidateDeviceInfo();
+        }
+    }
+
+    /**
+     * Calculates the energy that consumed with the current ampere between two times.
+     * @param startTime A {@code long} that represents the time when the device starts drawing amps.
+     * @param stopTime A {@code long} that represents the time when the device stops drawing amps
+     * @return A {@code float} that represents the energy.
+     */
+    private float energyBetween(long startTime, long stopTime){
+        long diff = stopTime-startTime;
+        Float hour = Utilities.millisecondToHour(diff);
+        return this.voltage*this.ampere *hour;
+    }
+
+    /**
+     * Gets the total consumed energy until a time including the current device.
+     * <br> The energy of the current device is calculated from the ampere and the time since it started drawing amps,
+     * so it is not needed to update the plug while the time passes.
+     * @param time A {@code long} that represents the time of the query.
+     * @return A {@code float} that represents the energy.
+     */
+    public float getEnergy(long time){
+        if (!status || !plug || !Validations.isTime(this.plugInTime) || !Validations.isTime(time)){
+            return this.totalEnergy;
         }
+        return this.totalEnergy + energyBetween(this.plugInTime, time);
+    }
+
+    /**
+     * Gets the total consumed energy until a time as text.
+     * @param time A {@code long} that represents the time of the query.
+     * @return A {@code String} that keeps the consumed energy including the current device.
+     */
+    @Override
+    public String getConsumptionText(long time){
+        return "Smart Plug "+ this.name+ " has consumed " + String.format("%.2f",getEnergy(time)) +"W "+
+                "so far (including current device).";
     }
 
     /**
@@ -0,0 +1,398 @@
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
+import java.util.Date;
+import java.util.List;
+import java.util.TimeZone;
+
+/**
+ * <p>
+ *   The {@code TimeFormat} class converts the times of the program between epoch milliseconds and text.
+ * </p>
+ * <p>
+ *   Times are read in the {@code yyyy-M-d_H:m:s} format. The text is checked and converted in one pass
+ *   without a regular expression or a {@code SimpleDateFormat}. Months and days are lenient as in
+ *   {@code SimpleDateFormat}, so {@code 2023-0-5} is a day of December 2022 and {@code 2023-2-31} is in March.
+ *   Times are written in the {@code yyyy-MM-dd_HH:mm:ss} format, and the text of the last written second is kept,
+ *   so writing the same second again does not create a new text.
+ * </p>
+ * Times are calculated directly if the default time zone has a fixed offset. Otherwise, they are calculated
+ * with the rules of the time zone, and a time in a gap or an overlap of the clock is converted as {@code SimpleDateFormat} does.
+ * The years before 1600, and the rare times that the rules and the {@code TimeZone} do not give the same offset,
+ * are converted with {@code SimpleDateFormat} as before.
+ * <br> Local times, the times of the clock without a time zone, are converted with the same format
+ * in the Gregorian calendar for all years. They are used by the binary command log.
+ * @see Utilities#convertStringToTime(String)
+ * @see Utilities#convertTimeToString(long)
+ */
+public final class TimeFormat {
+    /**
+     * Represents no time, such as the time of a house before its initial time or a text that is not a time.
+     */
+    public static final long NONE = Long.MIN_VALUE;
+
+    /**
+     * Milliseconds in a day.
+     */
+    private static final long DAY_MILLIS = 24L * 60 * 60 * 1000;
+    /**
+     * The first year that is calculated directly. The calendar is Gregorian after it.
+     */
+    private static final int FIRST_DIRECT_YEAR = 1600;
+    /**
+     * The local time of the first day of {@link TimeFormat#FIRST_DIRECT_YEAR} as milliseconds from the local epoch.
+     */
+    private static final long FIRST_DIRECT_TIME = daysFromCivil(FIRST_DIRECT_YEAR, 1, 1) * DAY_MILLIS;
+    /**
+     * The default time zone of the program.
+     */
+    private static final TimeZone ZONE = TimeZone.getDefault();
+    /**
+     * Shows the default time zone always has the same offset.
+     */
+    private static final boolean FIXED_OFFSET = fixedOffset();
+    /**
+     * The rules of the default time zone, or null if the time zone does not have rules.
+     */
+    private static final ZoneRules RULES = zoneRules();
+    /**
+     * Parsers for the times that are not calculated directly.
+     */
+    private static final ThreadLocal<SimpleDateFormat> parser =
+            ThreadLocal.withInitial(() -> new SimpleDateFormat("y-M-d_H:m:s"));
+    /**
+     * Formatters for the times that are not calculated directly.
+     */
+    private static final ThreadLocal<SimpleDateFormat> formatter =
+            ThreadLocal.withInitial(() -> new SimpleDateFormat("yyyy-MM-dd_HH:mm:ss"));
+
+    /**
+     * The last written second and its text.
+     */
+    private static volatile Rendered lastRendered = new Rendered(NONE, null);
+
+    /**
+     * The {@code Rendered} class keeps a second and its text together, so they are changed at once.
+     */
+    private static final class Rendered {
+        /**
+         * The second as epoch seconds.
+         */
+        final long second;
+        /**
+         * The text of the second.
+         */
+        final String text;
+
+        /**
+         * Creates a {@code Rendered}.
+         * @param second A {@code long} as epoch seconds.
+         * @param text A {@code String} that is the text of the second.
+         */
+        Rendered(long second, String text){
+            this.second = second;
+            this.text = text;
+        }
+    }
+
+    /**
+     * There is no object of this class.
+     */
+    private TimeFormat(){
+    }
+
+    /**
+     * Checks and converts a text in the {@code yyyy-M-d_H:m:s} format to a time.
+     * <br> The year has 4 digits. The month, the hour, the minute and the second have 1 or 2 digits in their ranges,
+     * the month can be 0 and the day is from 0 to 31.
+     * @param text A {@code String}.
+     * @return A {@code long} as epoch milliseconds, or {@link TimeFormat#NONE} if the text is not in the format.
+     */
+    public static long parse(String text){
+        long localTime = parseLocal(text);
+        if (localTime == NONE){
+            return NONE;
+        }
+        if (localTime < FIRST_DIRECT_TIME || (!FIXED_OFFSET && RULES == null)){
+            return parseWithCalendar(text);
+        }
+        if (FIXED_OFFSET){
+            return localTime - ZONE.getRawOffset();
+        }
+        long time = parseWithRules(localTime);
+        return time != NONE ? time : parseWithCalendar(text);
+    }
+
+    /**
+     * Checks and converts a text in the {@code yyyy-M-d_H:m:s} format to a local time in the Gregorian calendar.
+     * <br> The text is checked in the same way with {@link TimeFormat#parse(String)}.
+     * @param text A {@code String}.
+     * @return A {@code long} as milliseconds from the local epoch, or {@link TimeFormat#NONE} if the text is not in the format.
+     */
+    public static long parseLocal(String text){
+        int length = text.length();
+        if (length < 13 || length > 19){
+            return NONE;
+        }
+        int year = 0;
+        for (int i = 0; i < 4; i++){
+            int digit = text.charAt(i) - '0';
+            if (digit < 0 || digit > 9){
+                return NONE;
+            }
+            year = year * 10 + digit;
+        }
+        int position = 4;
+        if (text.charAt(position++) != '-'){
+            return NONE;
+        }
+        int month = readNumber(text, position, 12, 1);
+        if (month < 0){
+            return NONE;
+        }
+        position += numberLength(text, position);
+        if (position >= length || text.charAt(position++) != '-'){
+            return NONE;
+        }
+        int day = readNumber(text, position, 31, 0);
+        if (day < 0){
+            return NONE;
+        }
+        position += numberLength(text, position);
+        if (position >= length || text.charAt(position++) != '_'){
+            return NONE;
+        }
+        int hour = readNumber(text, position, 23, 0);
+        if (hour < 0){
+            return NONE;
+        }
+        position += numberLength(text, position);
+        if (position >= length || text.charAt(position++) != ':'){
+            return NONE;
+        }
+        int minute = readNumber(text, position, 59, 0);
+        if (minute < 0){
+            return NONE;
+        }
+        position += numberLength(text, position);
+        if (position >= length || text.charAt(position++) != ':'){
+            return NONE;
+        }
+        int second = readNumber(text, position, 59, 0);
+        if (second < 0 || position + numberLength(text, position) != length){
+            return NONE;
+        }
+        long monthIndex = year * 12L + month - 1;
+        long days = daysFromCivil(Math.floorDiv(monthIndex, 12), Math.floorMod(monthIndex, 12) + 1, 1) + day - 1;
+        return days * DAY_MILLIS + hour * 3_600_000L + minute * 60_000L + second * 1000L;
+    }
+
+    /**
+     * Converts a time to a text in the {@code yyyy-MM-dd_HH:mm:ss} format.
+     * @param time A {@code long} as epoch milliseconds.
+     * @return A {@code String}.
+     */
+    public static String format(long time){
+        long second = Math.floorDiv(time, 1000L);
+        Rendered rendered = lastRendered;
+        if (rendered.second == second){
+            return rendered.text;
+        }
+        String text = render(second * 1000);
+        lastRendered = new Rendered(second, text);
+        return text;
+    }
+
+    /**
+     * Converts a time to the local time of the default time zone.
+     * @param time A {@code long} as epoch milliseconds.
+     * @return A {@code long} that is the local time as milliseconds from the local epoch.
+     */
+    public static long toLocal(long time){
+        return time + (FIXED_OFFSET ? ZONE.getRawOffset() : ZONE.getOffset(time));
+    }
+
+    /**
+     * Converts a local time in the Gregorian calendar to a text in the {@code yyyy-MM-dd_HH:mm:ss} format.
+     * @param localTime A {@code long} as milliseconds from the local epoch.
+     * @return A {@code String}, or null if the year does not have 4 digits.
+     */
+    public static String formatLocal(long localTime){
+        int millisOfDay = (int) Math.floorMod(localTime, DAY_MILLIS);
+        long days = Math.floorDiv(localTime, DAY_MILLIS) + 719468;
+        long era = Math.floorDiv(days, 146097);
+        long dayOfEra = days - era * 146097;
+        long yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+        long dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        long monthIndex = (5 * dayOfYear + 2) / 153;
+        int day = (int) (dayOfYear - (153 * monthIndex + 2) / 5 + 1);
+        int month = (int) (monthIndex + (monthIndex < 10 ? 3 : -9));
+        long year = yearOfEra + era * 400 + (month <= 2 ? 1 : 0);
+        if (year < 0 || year > 9999){
+            return null;
+        }
+        char[] text = new char[19];
+        writeDigits(text, 0, (int) year, 4);
+        text[4] = '-';
+        writeDigits(text, 5, month, 2);
+        text[7] = '-';
+        writeDigits(text, 8, day, 2);
+        text[10] = '_';
+        writeDigits(text, 11, millisOfDay / 3_600_000, 2);
+        text[13] = ':';
+        writeDigits(text, 14, millisOfDay / 60_000 % 60, 2);
+        text[16] = ':';
+        writeDigits(text, 17, millisOfDay / 1000 % 60, 2);
+        return new String(text);
+    }
+
+    /**
+     * Creates the text of a time.
+     * @param time A {@code long} as epoch milliseconds.
+     * @return A {@code String} in the {@code yyyy-MM-dd_HH:mm:ss} format.
+     */
+    private static String render(long time){
+        long localTime = toLocal(time);
+        String text = localTime < FIRST_DIRECT_TIME ? null : formatLocal(localTime);
+        return text != null ? text : formatter.get().format(new Date(time));
+    }
+
+    /**
+     * Reads a number of 1 or 2 digits.
+     * @param text A {@code String}.
+     * @param position An {@code int} that is the index of the first digit.
+     * @param max An {@code int} that is the maximum value of 2 digits.
+     * @param min An {@code int} that is the minimum value of 2 digits.
+     * @return An {@code int} that is the number, or -1 if it is not valid.
+     */
+    private static int readNumber(String text, int position, int max, int min){
+        int length = numberLength(text, position);
+        if (length == 0 || length > 2){
+            return -1;
+        }
+        int number = text.charAt(position) - '0';
+        if (length == 1){
+            return number;
+        }
+        number = number * 10 + text.charAt(position + 1) - '0';
+        return number < min || number > max ? -1 : number;
+    }
+
+    /**
+     * Counts the digits from a position. At most 3 digits are counted.
+     * @param text A {@code String}.
+     * @param position An {@code int} that is the index of the first digit.
+     * @return An {@code int}.
+     */
+    private static int numberLength(String text, int position){
+        int length = 0;
+        while (length < 3 && position + length < text.length()){
+            char character = text.charAt(position + length);
+            if (character < '0' || character > '9'){
+                break;
+            }
+            length++;
+        }
+        return length;
+    }
+
+    /**
+     * Writes a number with leading zeros.
+     * @param text A {@code char[]}.
+     * @param position An {@code int} that is the index of the first digit.
+     * @param number An {@code int} that is not negative.
+     * @param digits An {@code int} that is the number of the digits.
+     */
+    private static void writeDigits(char[] text, int position, int number, int digits){
+        for (int i = position + digits - 1; i >= position; i--){
+            text[i] = (char) ('0' + number % 10);
+            number /= 10;
+        }
+    }
+
+    /**
+     * Counts the days from 1970-01-01 to a date of the Gregorian calendar.
+     * @param year A {@code long}.
+     * @param month An {@code int} from 1 to 12.
+     * @param day An {@code int} from 1 to 31.
+     * @return A {@code long} that is the number of the days.
+     */
+    private static long daysFromCivil(long year, int month, int day){
+        year -= month <= 2 ? 1 : 0;
+        long era = Math.floorDiv(year, 400);
+        long yearOfEra = year - era * 400;
+        long dayOfYear = (153L * (month + (month > 2 ? -3 : 9)) + 2) / 5 + day - 1;
+        long dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146097 + dayOfEra - 719468;
+    }
+
+    /**
+     * Converts a local time of the default time zone to a time with the rules of the time zone.
+     * <br> A local time in a gap is moved forward by the length of the gap, and a local time in an overlap
+     * is taken after the transition, as the lenient {@code SimpleDateFormat} does.
+     * The offsets are also checked with the {@code TimeZone}, because it does not keep the local mean time
+     * of the old years and the transitions of some zones after 2037.
+     * @param localTime A {@code long} as milliseconds from the local epoch.
+     * @return A {@code long} as epoch milliseconds, or {@link TimeFormat#NONE} if the rules and the {@code TimeZone} are not the same.
+     */
+    private static long parseWithRules(long localTime){
+        LocalDateTime dateTime = LocalDateTime.ofEpochSecond(
+                Math.floorDiv(localTime, 1000L), (int) Math.floorMod(localTime, 1000L) * 1_000_000, ZoneOffset.UTC);
+        List<ZoneOffset> offsets = RULES.getValidOffsets(dateTime);
+        if (offsets.size() == 1){
+            long offset = offsets.get(0).getTotalSeconds() * 1000L;
+            long time = localTime - offset;
+            return ZONE.getOffset(time) == offset ? time : NONE;
+        }
+        ZoneOffsetTransition transition = RULES.getTransition(dateTime);
+        long transitionTime = transition.toEpochSecond() * 1000L;
+        long offsetBefore = transition.getOffsetBefore().getTotalSeconds() * 1000L;
+        long offsetAfter = transition.getOffsetAfter().getTotalSeconds() * 1000L;
+        if (ZONE.getOffset(transitionTime - 1) != offsetBefore || ZONE.getOffset(transitionTime) != offsetAfter){
+            return NONE;
+        }
+        return localTime - (transition.isGap() ? offsetBefore : offsetAfter);
+    }
+
+    /**
+     * Converts a text that is checked with {@code SimpleDateFormat}.
+     * @param text A {@code String} in the {@code yyyy-M-d_H:m:s} format.
+     * @return A {@code long} as epoch milliseconds, or {@link TimeFormat#NONE} if it cannot be converted.
+     */
+    private static long parseWithCalendar(String text){
+        try {
+            return parser.get().parse(text).getTime();
+        } catch (ParseException e) {
+        }
+        return NONE;
+    }
+
+    /**
+     * Checks the default time zone always has the same offset.
+     * @return If the default time zone does not have daylight saving time or other changes, returns true.
+     */
+    private static boolean fixedOffset(){
+        try {
+            ZoneRules rules = ZONE.toZoneId().getRules();
+            return rules.isFixedOffset() && rules.getOffset(Instant.EPOCH).getTotalSeconds() * 1000 == ZONE.getRawOffset();
+        } catch (RuntimeException e){
+            return false;
+        }
+    }
+
+    /**
+     * Gets the rules of the default time zone.
+     * @return A {@code ZoneRules}, or null if the time zone cannot be converted to a {@code ZoneId}.
+     */
+    private static ZoneRules zoneRules(){
+        try {
+            return ZONE.toZoneId().getRules();
+        } catch (RuntimeException e){
+            return null;
+        }
+    }
+}
@@ -0,0 +1,299 @@
+import java.util.Arrays;
+
+/**
+ * <p>
+ *   The {@code TimingWheelScheduler} class keeps the scheduled workloads of a house in a hierarchical timing wheel.
+ * </p>
+ * <p>
+ *   Executing times are converted to seconds and each level of the wheel has 64 slots.
+ *   A slot of the level {@code l} covers {@code 64^l} seconds, so the levels together cover all times.
+ *   A workload is put to the lowest level that its time has the same higher digits with the cursor of the wheel.
+ *   When the cursor reaches a slot of a higher level, the workloads of the slot are moved to the lower levels.
+ *   Empty slots are skipped with the occupancy bitmaps of the levels, so large time jumps are cheap.
+ * </p>
+ * The slots are linked lists of the workload handles in arrays, so scheduling a workload does not allocate memory.
+ * Adding and removing a workload take {@code O(1)} time, and each workload is moved at most once for each level.
+ * @see WorkloadScheduler
+ * @see WorkloadStore
+ */
+public class TimingWheelScheduler implements WorkloadScheduler {
+    /**
+     * Number of the bits of a slot index.
+     */
+    private static final int SLOT_BITS = 6;
+    /**
+     * Number of the slots in a level.
+     */
+    private static final int SLOTS = 1 << SLOT_BITS;
+    /**
+     * Number of the levels. They cover all 64-bit times.
+     */
+    private static final int LEVELS = (Long.SIZE + SLOT_BITS - 1) / SLOT_BITS;
+
+    /**
+     * The store that keeps the values of the workloads.
+     */
+    private final WorkloadStore store;
+    /**
+     * The first workload of each slot, or {@link WorkloadStore#NONE}. Index: {@code level * SLOTS + slot}.
+     */
+    private final int[] heads = new int[LEVELS * SLOTS];
+    /**
+     * The occupied slots of each level as bits.
+     */
+    private final long[] occupied = new long[LEVELS];
+    /**
+     * The slot of each workload according to its handle. It is -1 if the workload is not scheduled.
+     */
+    private int[] slotOf = new int[0];
+    /**
+     * The previous workload in the slot of each workload according to its handle.
+     */
+    private int[] prev = new int[0];
+    /**
+     * The next workload in the slot of each workload according to its handle.
+     */
+    private int[] next = new int[0];
+    /**
+     * A reused buffer to sort the workloads of a slot by their ids.
+     */
+    private long[] sortBuffer = new long[16];
+    /**
+     * Number of the scheduled workloads.
+     */
+    private int size = 0;
+    /**
+     * The current key of the wheel. All scheduled keys are not before it.
+     * @see TimingWheelScheduler#toKey(long)
+     */
+    private long cursor = 0;
+
+    /**
+     * Creates an empty scheduler.
+     * @param store A {@code WorkloadStore} that keeps the values of the workloads.
+     */
+    public TimingWheelScheduler(WorkloadStore store){
+        this.store = store;
+        Arrays.fill(heads, WorkloadStore.NONE);
+    }
+
+    /**
+     * Converts a time to a key of the wheel. Keys are the seconds that ordered as unsigned numbers.
+     * @param time A {@code long} as epoch milliseconds.
+     * @return A {@code long} that is the key.
+     */
+    private static long toKey(long time){
+        return Math.floorDiv(time, 1000L) ^ Long.MIN_VALUE;
+    }
+
+    @Override
+    public void add(int workload){
+        if (workload >= slotOf.length){
+            int length = slotOf.length;
+            int capacity = Math.max(store.capacity(), workload + 1);
+            slotOf = Arrays.copyOf(slotOf, capacity);
+            prev = Arrays.copyOf(prev, capacity);
+            next = Arrays.copyOf(next, capacity);
+            Arrays.fill(slotOf, length, capacity, -1);
+        }
+        link(workload);
+        size++;
+    }
+
+    @Override
+    public void remove(int workload){
+        if (workload < 0 || workload >= slotOf.length || slotOf[workload] < 0){
+            return;
+        }
+        unlink(workload);
+        size--;
+    }
+
+    @Override
+    public long nextTime(){
+        int slot = firstSlot();
+        if (slot < 0){
+            return NO_TIME;
+        }
+        long nextTime = NO_TIME;
+        for (int workload = heads[slot]; workload != WorkloadStore.NONE; workload = next[workload]){
+            nextTime = Math.min(nextTime, store.getTime(workload));
+        }
+        return nextTime;
+    }
+
+    @Override
+    public void pollDue(long time, IntList dueWorkloads){
+        dueWorkloads.clear();
+        long target = toKey(time);
+        while (true){
+            int slot = firstSlot();
+            if (slot < 0 || Long.compareUnsigned(slotStart(slot), target) > 0){
+                if (Long.compareUnsigned(cursor, target) < 0){
+                    cursor = target;
+                }
+                return;
+            }
+            cursor = slotStart(slot);
+            if (slot >= SLOTS){
+                cascade(slot);
+                continue;
+            }
+            pollSlot(slot, time, dueWorkloads);
+            return;
+        }
+    }
+
+    @Override
+    public int size(){
+        return size;
+    }
+
+    /**
+     * Takes the workloads that have the first executing time in a slot of the first level.
+     * @param slot An {@code int} that is the index of the slot.
+     * @param time A {@code long} that is the last executing time that can be taken.
+     * @param dueWorkloads An {@code IntList} that is filled with the handles in order.
+     * It stays empty if the first executing time is after the time.
+     */
+    private void pollSlot(int slot, long time, IntList dueWorkloads){
+        long firstTime = Long.MAX_VALUE;
+        for (int workload = heads[slot]; workload != WorkloadStore.NONE; workload = next[workload]){
+            firstTime = Math.min(firstTime, store.getTime(workload));
+        }
+        if (firstTime > time){
+            return;
+        }
+        int count = 0;
+        long firstId = Long.MAX_VALUE;
+        long lastId = Long.MIN_VALUE;
+        int workload = heads[slot];
+        while (workload != WorkloadStore.NONE){
+            int nextWorkload = next[workload];
+            if (store.getTime(workload) == firstTime){
+                unlink(workload);
+                size--;
+                if (count == sortBuffer.length){
+                    sortBuffer = Arrays.copyOf(sortBuffer, count * 2);
+                }
+                sortBuffer[count++] = workload;
+                firstId = Math.min(firstId, store.getId(workload));
+                lastId = Math.max(lastId, store.getId(workload));
+            }
+            workload = nextWorkload;
+        }
+        if (lastId - firstId <= Integer.MAX_VALUE){
+            // The ids are packed over the first id, so they fit the high half of the sorting key.
+            for (int i = 0; i < count; i++){
+                sortBuffer[i] |= (store.getId((int) sortBuffer[i]) - firstId) << 32;
+            }
+            Arrays.sort(sortBuffer, 0, count);
+        } else {
+            sortByStore(count);
+        }
+        for (int i = 0; i < count; i++){
+            dueWorkloads.add((int) sortBuffer[i]);
+        }
+    }
+
+    /**
+     * Sorts the handles in the sorting buffer by the order of the store.
+     * <br> It is only used when the ids of the same executing time are too far to be packed into the sorting keys.
+     * @param count An {@code int} that is the number of the handles in the buffer.
+     */
+    private void sortByStore(int count){
+        for (int i = 1; i < count; i++){
+            int workload = (int) sortBuffer[i];
+            int j = i - 1;
+            while (j >= 0 && store.compare((int) sortBuffer[j], workload) > 0){
+                sortBuffer[j + 1] = sortBuffer[j];
+                j--;
+            }
+            sortBuffer[j + 1] = workload;
+        }
+    }
+
+    /**
+     * Moves the workloads of a slot of a higher level to the lower levels according to the cursor.
+     * @param slot An {@code int} that is the index of the slot.
+     */
+    private void cascade(int slot){
+        int workload = heads[slot];
+        heads[slot] = WorkloadStore.NONE;
+        occupied[slot / SLOTS] &= ~(1L << (slot % SLOTS));
+        while (workload != WorkloadStore.NONE){
+            int nextWorkload = next[workload];
+            link(workload);
+            workload = nextWorkload;
+        }
+    }
+
+    /**
+     * Finds the first occupied slot. Levels are in order of time and slots of a level are in order of time,
+     * so it is the lowest occupied slot of the lowest occupied level.
+     * @return An {@code int} that is the index of the slot, or -1 if the wheel is empty.
+     */
+    private int firstSlot(){
+        for (int level = 0; level < LEVELS; level++){
+            if (occupied[level] != 0){
+                return level * SLOTS + Long.numberOfTrailingZeros(occupied[level]);
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Gets the first key that a slot covers according to the cursor.
+     * @param slot An {@code int} that is the index of the slot.
+     * @return A {@code long} that is the key.
+     */
+    private long slotStart(int slot){
+        int shift = (slot / SLOTS) * SLOT_BITS;
+        long higherBits = shift + SLOT_BITS >= Long.SIZE ? 0 : cursor & (-1L << (shift + SLOT_BITS));
+        return higherBits | ((long) (slot % SLOTS) << shift);
+    }
+
+    /**
+     * Adds a workload to the head of its slot according to the cursor.
+     * If the key is before the cursor, the workload is added to the slot of the cursor.
+     * @param workload An {@code int} that is the handle of the workload.
+     */
+    private void link(int workload){
+        long key = toKey(store.getTime(workload));
+        if (Long.compareUnsigned(key, cursor) < 0){
+            key = cursor;
+        }
+        long difference = key ^ cursor;
+        int level = difference == 0 ? 0 : (Long.SIZE - 1 - Long.numberOfLeadingZeros(difference)) / SLOT_BITS;
+        int index = (int) ((key >>> (level * SLOT_BITS)) & (SLOTS - 1));
+        int slot = level * SLOTS + index;
+        slotOf[workload] = slot;
+        prev[workload] = WorkloadStore.NONE;
+        next[workload] = heads[slot];
+        if (next[workload] != WorkloadStore.NONE){
+            prev[next[workload]] = workload;
+        }
+        heads[slot] = workload;
+        occupied[level] |= 1L << index;
+    }
+
+    /**
+     * Removes a workload from its slot.
+     * @param workload An {@code int} that is the handle of the workload.
+     */
+    private void unlink(int workload){
+        int slot = slotOf[workload];
+        if (prev[workload] != WorkloadStore.NONE){
+            next[prev[workload]] = next[workload];
+        }else{
+            heads[slot] = next[workload];
+            if (next[workload] == WorkloadStore.NONE){
+                occupied[slot / SLOTS] &= ~(1L << (slot % SLOTS));
+            }
+        }
+        if (next[workload] != WorkloadStore.NONE){
+            prev[next[workload]] = prev[workload];
+        }
+        slotOf[workload] = -1;
+    }
+}
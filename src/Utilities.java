@@ -1,68 +1,25 @@
-import java.text.DateFormat;
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
-import java.util.ArrayList;
-import java.util.Date;
-
 /**
  * The {@code Utilities} class contains the commonly used methods.
  */
 public class Utilities {
     /**
-     * Converts a {@code String} object to a {@code Date} object.
+     * Converts a {@code String} object to a time. The format is checked while it is converted.
      * @param str A {@code String} object that suits a specific format.
-     * @return A {@code Date} object.
+     * @return A {@code long} as epoch milliseconds, or {@link TimeFormat#NONE} if the format is not correct.
+     * @see TimeFormat#parse(String)
      */
-    public static Date convertStringToDate(String str){
-        SimpleDateFormat formatter = new SimpleDateFormat("y-M-d_H:m:s");
-        Date date = null;
-        try {
-            date = formatter.parse(str);
-        } catch (ParseException e) {
-        }
-        return date;
+    public static long convertStringToTime(String str){
+        return TimeFormat.parse(str);
     }
 
     /**
-     * Converts A {@code Date} object to a {@code String} object in specific format.
-     * @param date A {@code Date} object.
+     * Converts a time to a {@code String} object in specific format.
+     * @param time A {@code long} as epoch milliseconds.
      * @return A {@code String} in specific format.
+     * @see TimeFormat#format(long)
      */
-    public static String convertDateToString(Date date){
-        DateFormat formatter = new SimpleDateFormat("yyyy-MM-dd_HH:mm:ss");
-        String dateStr = formatter.format(date);
-        return dateStr;
-    }
-
-    /**
-     * Gets an index for a {@code SmartDevice} according to its
-     * workload's time in a sorted {@code SmartDevices} list.
-     * @param devices An {@code ArrayList<SmartDevice>} that is contains ordered {@code SmartDevices}
-     * @param device A {@code SmartDevice} object that has a workload.
-     * @return An {@code Integer} that represent an index.
-     * @see Workload
-     * @see SmartDevice
-     */
-    public static Integer getDeviceIndexBySwitchTime(ArrayList<SmartDevice> devices,SmartDevice device){
-        int length = devices.size();
-        if(length == 0) {
-            return 0;
-        }
-
-        int half = length/2;
-        SmartDevice halfDevice = devices.get(half);
-        Date halfSwitchTime = Workload.getWorkload(halfDevice.switchTimeWorkloadId).time;
-        Date deviceSwitchTime = Workload.getWorkload(device.switchTimeWorkloadId).time;
-
-        if (length == 1){
-            return halfSwitchTime.getTime() > deviceSwitchTime.getTime() ? 0:1;
-        }else if (halfSwitchTime.getTime() > deviceSwitchTime.getTime() ){
-            ArrayList<SmartDevice> newDevices = new ArrayList<>(devices.subList(0,half));
-            return getDeviceIndexBySwitchTime(newDevices,device);
-        }else{
-            ArrayList<SmartDevice> newDevices = new ArrayList<>(devices.subList(half,length));
-            return half + getDeviceIndexBySwitchTime(newDevices,device);
-        }
+    public static String convertTimeToString(long time){
+        return TimeFormat.format(time);
     }
 
     /**
@@ -85,13 +42,13 @@ public class Utilities {
     }
 
     /**
-     * Adds minute value to a {@code Date} object and returns new {@code Date}.
-     * @param date A {@code Date} object.
+     * Adds minute value to a time and returns new time.
+     * @param time A {@code long} as epoch milliseconds.
      * @param minutes An positive {@code Integer}.
-     * @return A {@code Date} that minutes added.
+     * @return A {@code long} that minutes added.
      */
-    public static Date addMinutes(Date date, int minutes){
-        return new Date(date.getTime() + (long) 1000*60*minutes);
+    public static long addMinutes(long time, int minutes){
+        return time + (long) 1000*60*minutes;
     }
 
     /**
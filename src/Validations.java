@@ -1,5 +1,4 @@
 import java.util.ArrayList;
-import java.util.Date;
 import java.util.Dictionary;
 import java.util.regex.Pattern;
 
@@ -74,29 +73,38 @@ public class Validations {
      * Checks the string that given is in a true date format.
      * @param str A {@code String}.
      * @return A {@code boolean}, If is in a true date format returns true.
+     * @see TimeFormat#parse(String)
      */
     public static boolean isTrueDateFormat(String str){
-        Pattern pattern = Pattern.compile("^\\d{4}-(\\d|0[1-9]|1[0-2])-([012]\\d|3[01]|\\d)_([01]\\d|2[0-3]|\\d):([0-5]\\d|\\d):([0-5]\\d|\\d)$");
-        return pattern.matcher(str).matches();
+        return isTime(TimeFormat.parse(str));
+    }
+
+    /**
+     * Checks the time that given is a time.
+     * @param time A {@code long} as epoch milliseconds.
+     * @return A {@code boolean}, If it is not {@link TimeFormat#NONE} returns true.
+     */
+    public static boolean isTime(long time){
+        return time != TimeFormat.NONE;
     }
 
     /**
      * Checks the times are the same or not.
-     * @param time1 A {@code Date} object that represents time that wantings to check
-     * @param time2 A {@code Date} object for using as reference.
+     * @param time1 A {@code long} that represents time that wantings to check
+     * @param time2 A {@code long} for using as reference.
      * @return If times are the same according to currentTime returns true.
      */
-    public static boolean isSameTime(Date time1, Date time2){
-        return time1.getTime() == time2.getTime();
+    public static boolean isSameTime(long time1, long time2){
+        return time1 == time2;
     }
     /**
      * Checks the time is passed or not.
-     * @param time A {@code Date} object that represents time that wantings to check
-     * @param currentTime A {@code Date} object for using as reference.
+     * @param time A {@code long} that represents time that wantings to check
+     * @param currentTime A {@code long} for using as reference.
      * @return If time passed according to currentTime returns true.
      */
-    public static boolean isPassedTime(Date time, Date currentTime){
-        return time.getTime() < currentTime.getTime();
+    public static boolean isPassedTime(long time, long currentTime){
+        return time < currentTime;
     }
 
     /**
@@ -198,24 +206,27 @@ public class Validations {
      * @param deviceName A {@code String}, represents device name.
      * @throws DeviceExceptions.IllegalArgumentException If there is a device, gives an error.
      * @see SmartDevice
-     * @see SmartDevice#deviceNames
+     * @see SmartDevice#getDeviceByName(String)
      */
     public static void checkDeviceNonExist(String deviceName) throws DeviceExceptions.IllegalArgumentException{
-        if (Validations.isLegalKey(SmartDevice.deviceNames,deviceName)){
+        if (!Validations.isNull(SmartDevice.getDeviceByName(deviceName))){
             throw new DeviceExceptions.IllegalArgumentException("ERROR: There is already a smart device with same name!");
         }
     }
     /**
-     * Checks the there is a device with name that given.
+     * Checks the there is a device with name that given and gets it with the same lookup.
      * @param deviceName A {@code String}, represents device name.
+     * @return A {@code SmartDevice} that has the name.
      * @throws DeviceExceptions.IllegalArgumentException If there is not a device, gives an error.
      * @see SmartDevice
-     * @see SmartDevice#deviceNames
+     * @see SmartDevice#getDeviceByName(String)
      */
-    public static void checkDeviceExist(String deviceName) throws DeviceExceptions.IllegalArgumentException {
-        if (!Validations.isLegalKey(SmartDevice.deviceNames,deviceName)){
+    public static SmartDevice checkDeviceExist(String deviceName) throws DeviceExceptions.IllegalArgumentException {
+        SmartDevice device = SmartDevice.getDeviceByName(deviceName);
+        if (Validations.isNull(device)){
             throw new DeviceExceptions.IllegalArgumentException("ERROR: There is not such a device!");
         }
+        return device;
     }
 
     /**
@@ -366,11 +377,11 @@ public class Validations {
     /**
      * Checks the {@link Action#actionName} is a valid action in this program.
      * @param action An {@code Action} from user
-     * @throws DeviceExceptions.InvalidCommandException If the action name is not in
-     * {@link SmartDeviceController#methodMapper}, gives an error.
+     * @throws DeviceExceptions.InvalidCommandException If the action name is not a
+     * {@link Command}, gives an error.
      */
     public static void validateAction(Action action) throws DeviceExceptions.InvalidCommandException {
-        if (Validations.isNull(SmartDeviceController.methodMapper.get(action.actionName))){
+        if (!action.isKnownAction()){
             throw new DeviceExceptions.InvalidCommandException("ERROR: Erroneous command!");
         }
     }
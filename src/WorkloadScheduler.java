@@ -0,0 +1,80 @@
+/**
+ * <p>
+ *   The {@code WorkloadScheduler} interface keeps the scheduled workloads of a house
+ *   and gives them in order of their executing times.
+ * </p>
+ * Workloads are represented by their handles in the {@code WorkloadStore} of the house.
+ * Workloads that have the same executing time are given together and ordered by their ids,
+ * so they are in the order that they are added.
+ * @see WorkloadStore
+ * @see House#scheduler
+ */
+public interface WorkloadScheduler {
+    /**
+     * The time that represents there is no scheduled workload.
+     * @see WorkloadScheduler#nextTime()
+     */
+    long NO_TIME = Long.MAX_VALUE;
+
+    /**
+     * The {@code Type} enum represents the implementations of the scheduler.
+     */
+    enum Type {
+        /**
+         * A binary heap. Each operation takes {@code O(log n)} time.
+         * @see OrderedWorkloadScheduler
+         */
+        ORDERED,
+        /**
+         * A hierarchical timing wheel. Adding and removing a workload take {@code O(1)} time.
+         * @see TimingWheelScheduler
+         */
+        WHEEL
+    }
+
+    /**
+     * Creates an empty scheduler.
+     * @param type A {@code Type} that is the implementation of the scheduler.
+     * @param store A {@code WorkloadStore} that keeps the values of the workloads.
+     * @return A {@code WorkloadScheduler}.
+     */
+    static WorkloadScheduler create(Type type, WorkloadStore store){
+        if (type == Type.WHEEL){
+            return new TimingWheelScheduler(store);
+        }
+        return new OrderedWorkloadScheduler(store);
+    }
+
+    /**
+     * Adds a workload to the schedule. Its executing time must not be before the last time
+     * that given to {@link WorkloadScheduler#pollDue(long, IntList)}.
+     * @param workload An {@code int} that is the handle of the workload.
+     */
+    void add(int workload);
+
+    /**
+     * Removes a workload from the schedule if it is scheduled.
+     * @param workload An {@code int} that is the handle of the workload.
+     */
+    void remove(int workload);
+
+    /**
+     * Gets the executing time of the first workload.
+     * @return A {@code long} as epoch milliseconds, or {@link WorkloadScheduler#NO_TIME} if there is no scheduled workload.
+     */
+    long nextTime();
+
+    /**
+     * Takes the workloads that have the first executing time if the time is not after the given time.
+     * @param time A {@code long} that is the last executing time that can be taken as epoch milliseconds.
+     * @param dueWorkloads An {@code IntList} that is cleared and filled with the handles of the workloads in order.
+     * It is empty if there is no workload to execute until the time.
+     */
+    void pollDue(long time, IntList dueWorkloads);
+
+    /**
+     * Gets the number of the scheduled workloads.
+     * @return An {@code int}.
+     */
+    int size();
+}
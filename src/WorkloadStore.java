@@ -0,0 +1,309 @@
+import java.util.Arrays;
+
+/**
+ * <p>
+ *   The {@code WorkloadStore} class keeps the scheduled workloads of a house in primitive arrays.
+ *   A workload is a transaction for a {@code SmartDevice} that will be performed at a time.
+ * </p>
+ * <p>
+ *   A workload is represented by its handle, the index of its values in the arrays. For each workload the store keeps
+ *   the executing time as epoch milliseconds, the id, the device id, the opcode of the transaction and a packed argument.
+ *   Routines, scheduled actions and group switches also keep their object as the payload of their workloads.
+ * </p>
+ * The handles of the removed workloads are reused with a free list, so scheduling a workload does not allocate memory
+ * after the arrays have grown enough. A workload takes about 30 bytes in the store.
+ * @see House#workloads
+ * @see WorkloadScheduler
+ */
+public class WorkloadStore {
+    /**
+     * The handle that represents no workload.
+     */
+    public static final int NONE = -1;
+
+    /**
+     * The opcode of a free handle.
+     */
+    public static final byte FREE = 0;
+    /**
+     * Switches the status of the device with {@link SmartDevice#switchStatus(long, boolean)}.
+     * The argument is 1 for on and 0 for off.
+     */
+    public static final byte SWITCH = 1;
+    /**
+     * Switches the status of the device for a {@code Routine}. The payload is the routine.
+     * The argument is 1 for on and 0 for off.
+     * @see Routine
+     */
+    public static final byte ROUTINE = 2;
+    /**
+     * Executes a device command. The payload is the {@code ScheduledAction}.
+     * @see ScheduledAction
+     */
+    public static final byte ACTION = 3;
+    /**
+     * Switches the members of a device group. The payload is the {@code GroupSwitch} and the device id is {@link WorkloadStore#NONE}.
+     * @see GroupSwitch
+     */
+    public static final byte GROUP_SWITCH = 4;
+
+    /**
+     * The first capacity of the arrays.
+     */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /**
+     * Executing times of the workloads as epoch milliseconds.
+     */
+    private long[] times = new long[INITIAL_CAPACITY];
+    /**
+     * Non duplicated ids of the workloads. They are given in order, so they keep the order of scheduling.
+     * <br> They are {@code long}, because every reschedule of a routine takes a new id and an {@code int} would wrap.
+     */
+    private long[] ids = new long[INITIAL_CAPACITY];
+    /**
+     * Device ids of the workloads. For a free handle it is the next free handle.
+     */
+    private int[] deviceIds = new int[INITIAL_CAPACITY];
+    /**
+     * Opcodes of the workloads.
+     */
+    private byte[] opcodes = new byte[INITIAL_CAPACITY];
+    /**
+     * Packed arguments of the workloads.
+     */
+    private long[] arguments = new long[INITIAL_CAPACITY];
+    /**
+     * Routines, scheduled actions and group switches of the workloads. It is null for the other workloads.
+     */
+    private Object[] payloads = new Object[INITIAL_CAPACITY];
+
+    /**
+     * The first free handle.
+     */
+    private int freeHandle = NONE;
+    /**
+     * Number of the handles that have been used.
+     */
+    private int usedHandles = 0;
+    /**
+     * Number of the workloads in the store.
+     */
+    private int size = 0;
+    /**
+     * The id of the next workload.
+     */
+    private long idCounter = 0;
+
+    /**
+     * Adds a workload to the store.
+     * @param time A {@code long} that is the executing time as epoch milliseconds.
+     * @param deviceId An {@code int} that is the id of the device.
+     * @param opcode A {@code byte} that is the transaction.
+     * @param argument A {@code long} that is the packed argument of the transaction.
+     * @param payload An {@code Object} that is the routine, the scheduled action or the group switch, or null.
+     * @return An {@code int} that is the handle of the workload.
+     */
+    public int allocate(long time, int deviceId, byte opcode, long argument, Object payload){
+        int handle;
+        if (freeHandle != NONE){
+            handle = freeHandle;
+            freeHandle = deviceIds[handle];
+        }else{
+            if (usedHandles == times.length){
+                grow();
+            }
+            handle = usedHandles++;
+        }
+        times[handle] = time;
+        ids[handle] = idCounter++;
+        deviceIds[handle] = deviceId;
+        opcodes[handle] = opcode;
+        arguments[handle] = argument;
+        payloads[handle] = payload;
+        size++;
+        return handle;
+    }
+
+    /**
+     * Removes a workload from the store. Its handle can be given to a new workload after it.
+     * @param handle An {@code int} that is the handle of the workload.
+     */
+    public void free(int handle){
+        if (opcodes[handle] == FREE){
+            return;
+        }
+        opcodes[handle] = FREE;
+        payloads[handle] = null;
+        deviceIds[handle] = freeHandle;
+        freeHandle = handle;
+        size--;
+    }
+
+    /**
+     * Moves a workload to a new executing time and gives it a new id, as if it is scheduled again.
+     * @param handle An {@code int} that is the handle of the workload.
+     * @param time A {@code long} that is the new executing time as epoch milliseconds.
+     */
+    public void reschedule(int handle, long time){
+        times[handle] = time;
+        ids[handle] = idCounter++;
+    }
+
+    /**
+     * Gets the executing time of a workload.
+     * @param handle An {@code int} that is the handle of the workload.
+     * @return A {@code long} as epoch milliseconds.
+     */
+    public long getTime(int handle){
+        return times[handle];
+    }
+
+    /**
+     * Gets the id of a workload.
+     * @param handle An {@code int} that is the handle of the workload.
+     * @return A {@code long}.
+     */
+    public long getId(int handle){
+        return ids[handle];
+    }
+
+    /**
+     * Gets the device id of a workload.
+     * @param handle An {@code int} that is the handle of the workload.
+     * @return An {@code int}.
+     */
+    public int getDeviceId(int handle){
+        return deviceIds[handle];
+    }
+
+    /**
+     * Gets the opcode of a workload.
+     * @param handle An {@code int} that is the handle of the workload.
+     * @return A {@code byte}. It is {@link WorkloadStore#FREE} if the handle is not used.
+     */
+    public byte getOpcode(int handle){
+        return opcodes[handle];
+    }
+
+    /**
+     * Gets the packed argument of a workload.
+     * @param handle An {@code int} that is the handle of the workload.
+     * @return A {@code long}.
+     */
+    public long getArgument(int handle){
+        return arguments[handle];
+    }
+
+    /**
+     * Gets the routine, the scheduled action or the group switch of a workload.
+     * @param handle An {@code int} that is the handle of the workload.
+     * @return An {@code Object}, or null if the workload does not have it.
+     */
+    public Object getPayload(int handle){
+        return payloads[handle];
+    }
+
+    /**
+     * Orders two workloads by their executing times and then by their ids.
+     * @param first An {@code int} that is the handle of the first workload.
+     * @param second An {@code int} that is the handle of the second workload.
+     * @return A negative number, zero or a positive number as the first workload is before, same or after the second.
+     */
+    public int compare(int first, int second){
+        int result = Long.compare(times[first], times[second]);
+        return result != 0 ? result : Long.compare(ids[first], ids[second]);
+    }
+
+    /**
+     * Puts a workload of a snapshot to its handle with its id.
+     * <br> After all workloads are put, {@link WorkloadStore#restoreCounters(int, long)} must be called.
+     * @param handle An {@code int} that is the handle of the workload in the snapshot.
+     * @param time A {@code long} that is the executing time as epoch milliseconds.
+     * @param id A {@code long} that is the id of the workload.
+     * @param deviceId An {@code int} that is the id of the device.
+     * @param opcode A {@code byte} that is the transaction.
+     * @param argument A {@code long} that is the packed argument of the transaction.
+     * @param payload An {@code Object} that is the routine, the scheduled action or the group switch, or null.
+     * @see HouseSnapshot
+     */
+    public void restore(int handle, long time, long id, int deviceId, byte opcode, long argument, Object payload){
+        while (handle >= times.length){
+            grow();
+        }
+        times[handle] = time;
+        ids[handle] = id;
+        deviceIds[handle] = deviceId;
+        opcodes[handle] = opcode;
+        arguments[handle] = argument;
+        payloads[handle] = payload;
+        size++;
+    }
+
+    /**
+     * Sets the counters of a snapshot and links the handles that are not restored to the free list.
+     * @param usedHandles An {@code int} that is the number of the handles that have been used.
+     * @param idCounter A {@code long} that is the id of the next workload.
+     * @see HouseSnapshot
+     */
+    public void restoreCounters(int usedHandles, long idCounter){
+        while (usedHandles > times.length){
+            grow();
+        }
+        this.usedHandles = usedHandles;
+        this.idCounter = idCounter;
+        freeHandle = NONE;
+        for (int handle = usedHandles - 1; handle >= 0; handle--){
+            if (opcodes[handle] == FREE){
+                deviceIds[handle] = freeHandle;
+                freeHandle = handle;
+            }
+        }
+    }
+
+    /**
+     * Gets the number of the handles that have been used. The handles of all workloads are less than it.
+     * @return An {@code int}.
+     */
+    public int getUsedHandles(){
+        return usedHandles;
+    }
+
+    /**
+     * Gets the id of the next workload.
+     * @return A {@code long}.
+     */
+    public long getIdCounter(){
+        return idCounter;
+    }
+
+    /**
+     * Gets the number of the handles that can be used without growing the arrays.
+     * Schedulers size their arrays that are indexed by handles with it.
+     * @return An {@code int}.
+     */
+    public int capacity(){
+        return times.length;
+    }
+
+    /**
+     * Gets the number of the workloads in the store.
+     * @return An {@code int}.
+     */
+    public int size(){
+        return size;
+    }
+
+    /**
+     * Doubles the capacity of the arrays.
+     */
+    private void grow(){
+        int capacity = times.length * 2;
+        times = Arrays.copyOf(times, capacity);
+        ids = Arrays.copyOf(ids, capacity);
+        deviceIds = Arrays.copyOf(deviceIds, capacity);
+        opcodes = Arrays.copyOf(opcodes, capacity);
+        arguments = Arrays.copyOf(arguments, capacity);
+        payloads = Arrays.copyOf(payloads, capacity);
+    }
+}